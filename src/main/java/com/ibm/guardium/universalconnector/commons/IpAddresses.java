@@ -0,0 +1,208 @@
+//
+// Copyright 2020- IBM Inc. All rights reserved
+// SPDX-License-Identifier: Apache2.0
+//
+package com.ibm.guardium.universalconnector.commons;
+
+/**
+ * Parses and formats IPv4 and IPv6 addresses without regular expressions or allocation. Addresses are
+ * accepted in the forms {@link org.apache.commons.validator.routines.InetAddressValidator} accepts: dotted
+ * decimal IPv4 without leading zeros, and IPv6 with at most one {@code ::} and an optional dotted IPv4 tail,
+ * without a zone id.
+ */
+public final class IpAddresses {
+    public static final int IPV6_BYTES = 16;
+
+    private IpAddresses() {
+    }
+
+    /**
+     * @param address An address, e.g. 10.0.0.7.
+     * @return The address as an unsigned 32-bit value, or -1 if it is not a valid IPv4 address.
+     */
+    public static long parseIpv4(CharSequence address) {
+        return address != null ? parseIpv4(address, 0, address.length()) : -1;
+    }
+
+    private static long parseIpv4(CharSequence s, int from, int to) {
+        long value = 0;
+        int i = from;
+        for (int segment = 0; segment < 4; segment++) {
+            if (segment > 0) {
+                if (i >= to || s.charAt(i) != '.') {
+                    return -1;
+                }
+                i++;
+            }
+            int start = i;
+            int octet = 0;
+            while (i < to && i - start < 3 && isDigit(s.charAt(i))) {
+                octet = octet * 10 + (s.charAt(i++) - '0');
+            }
+            if (i == start || octet > 255 || (i - start > 1 && s.charAt(start) == '0')) {
+                return -1;
+            }
+            value = value << 8 | octet;
+        }
+        return i == to ? value : -1;
+    }
+
+    public static boolean isValidIpv4(CharSequence address) {
+        return parseIpv4(address) >= 0;
+    }
+
+    public static boolean isValidIpv6(CharSequence address) {
+        return parseIpv6(address, null);
+    }
+
+    /**
+     * Parses an IPv6 address, e.g. 2001:db8::8a2e:370:7334 or ::ffff:10.0.0.7.
+     *
+     * @param address An address.
+     * @param bytes   Receives the 16 bytes of the address in network order if it is valid; may be null to only
+     *                validate the address.
+     * @return Whether the address is a valid IPv6 address. The bytes are undefined if it is not.
+     */
+    public static boolean parseIpv6(CharSequence address, byte[] bytes) {
+        if (address == null) {
+            return false;
+        }
+        int length = address.length();
+        if (length < 2 || length > 45) {
+            return false;
+        }
+        int groups = 0;
+        // the number of groups before the "::", or -1 if there is none
+        int compressed = -1;
+        int i = 0;
+        if (address.charAt(0) == ':') {
+            if (address.charAt(1) != ':') {
+                return false;
+            }
+            compressed = 0;
+            i = 2;
+        }
+        while (i < length) {
+            int start = i;
+            int group = 0;
+            int digit;
+            while (i < length && (digit = Character.digit(address.charAt(i), 16)) >= 0 && address.charAt(i) < 128) {
+                if (i - start == 4) {
+                    return false;
+                }
+                group = group << 4 | digit;
+                i++;
+            }
+            if (i < length && address.charAt(i) == '.') {
+                // a dotted IPv4 tail holds the last two groups
+                long ipv4 = groups <= 6 ? parseIpv4(address, start, length) : -1;
+                if (ipv4 < 0) {
+                    return false;
+                }
+                put(bytes, groups++, (int) (ipv4 >>> 16));
+                put(bytes, groups++, (int) ipv4 & 0xffff);
+                break;
+            }
+            if (i == start || groups == 8) {
+                return false;
+            }
+            put(bytes, groups++, group);
+            if (i == length) {
+                break;
+            }
+            if (address.charAt(i++) != ':' || i == length) {
+                return false;
+            }
+            if (address.charAt(i) == ':') {
+                if (compressed >= 0) {
+                    return false;
+                }
+                compressed = groups;
+                i++;
+            }
+        }
+        if (compressed < 0) {
+            return groups == 8;
+        }
+        if (groups == 8) {
+            return false;
+        }
+        if (bytes != null) {
+            // move the groups after the "::" to the end, and zero the ones it stands for
+            int tail = (groups - compressed) * 2;
+            System.arraycopy(bytes, compressed * 2, bytes, IPV6_BYTES - tail, tail);
+            for (int b = compressed * 2; b < IPV6_BYTES - tail; b++) {
+                bytes[b] = 0;
+            }
+        }
+        return true;
+    }
+
+    private static void put(byte[] bytes, int group, int value) {
+        if (bytes != null) {
+            bytes[group * 2] = (byte) (value >>> 8);
+            bytes[group * 2 + 1] = (byte) value;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public static String formatIpv4(int address) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "." + (address & 0xff);
+    }
+
+    /**
+     * Formats an IPv6 address in its canonical text form (RFC 5952): lowercase hexadecimal without leading
+     * zeros, with the longest run of two or more zero groups replaced by {@code ::}.
+     */
+    public static String formatIpv6(byte[] address) {
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int group = 0; group < 8; ) {
+            if (group(address, group) != 0) {
+                group++;
+                continue;
+            }
+            int start = group;
+            while (group < 8 && group(address, group) == 0) {
+                group++;
+            }
+            if (group - start > bestLength) {
+                bestStart = start;
+                bestLength = group - start;
+            }
+        }
+        StringBuilder text = new StringBuilder(39);
+        for (int group = 0; group < 8; group++) {
+            if (group == bestStart) {
+                text.append("::");
+                group += bestLength - 1;
+                continue;
+            }
+            if (text.length() > 0 && text.charAt(text.length() - 1) != ':') {
+                text.append(':');
+            }
+            text.append(Integer.toHexString(group(address, group)));
+        }
+        return text.toString();
+    }
+
+    private static int group(byte[] address, int group) {
+        return (address[group * 2] & 0xff) << 8 | (address[group * 2 + 1] & 0xff);
+    }
+
+    /**
+     * @param address An IPv4 or IPv6 address.
+     * @return The canonical form of the address, or null if it is not valid.
+     */
+    public static String normalize(String address) {
+        long ipv4 = parseIpv4(address);
+        if (ipv4 >= 0) {
+            return formatIpv4((int) ipv4);
+        }
+        byte[] ipv6 = new byte[IPV6_BYTES];
+        return parseIpv6(address, ipv6) ? formatIpv6(ipv6) : null;
+    }
+}
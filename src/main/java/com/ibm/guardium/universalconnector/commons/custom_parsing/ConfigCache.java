@@ -0,0 +1,202 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches a value loaded from a config file so that it is read once instead of on every event.
+ * <p>
+ * The file's modification time and size are polled at most once per check interval. When either
+ * changes, the value is reloaded and swapped in atomically; readers never block on a reload and keep
+ * using the previous value until the new one is published. The number and cost of swaps are exposed
+ * so hot reloads can be monitored.
+ *
+ * @param <T> The type of the cached value.
+ */
+public class ConfigCache<T> {
+    static final long DEFAULT_CHECK_INTERVAL_MILLIS = 5000;
+    private static final long UNKNOWN = -1L;
+
+    private static final Logger logger = LogManager.getLogger(ConfigCache.class);
+
+    private final Path path;
+    private final Supplier<T> loader;
+    private final long checkIntervalNanos;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final AtomicLong swapCount = new AtomicLong();
+    private final AtomicLong totalSwapNanos = new AtomicLong();
+    private volatile Snapshot<T> snapshot;
+    private volatile long nextCheckNanos;
+    private volatile long lastSwapNanos = -1L;
+
+    /**
+     * @param filePath            The file to watch; may be null if the value is not file backed, in which
+     *                            case it is loaded once.
+     * @param loader              Loads the value. May return null if the file could not be read.
+     * @param checkIntervalMillis The minimum time between two checks of the file.
+     */
+    public ConfigCache(String filePath, Supplier<T> loader, long checkIntervalMillis) {
+        this.path = toPath(filePath);
+        this.loader = loader;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis);
+    }
+
+    /**
+     * Returns the cached value, reloading it first if the file changed since it was last read.
+     *
+     * @return The current value, or null if it could not be loaded.
+     */
+    public T get() {
+        Snapshot<T> current = snapshot;
+        if (current != null && System.nanoTime() - nextCheckNanos >= 0 && reloadLock.tryLock()) {
+            try {
+                refresh(current);
+            } finally {
+                reloadLock.unlock();
+            }
+            current = snapshot;
+        }
+        return current != null ? current.value : initialLoad();
+    }
+
+    /**
+     * Forces the value to be reloaded on the next call to {@link #get()}.
+     */
+    public void invalidate() {
+        reloadLock.lock();
+        try {
+            Snapshot<T> current = snapshot;
+            if (current != null) {
+                snapshot = new Snapshot<>(current.value, current.lastModified, current.size, true);
+            }
+            nextCheckNanos = System.nanoTime();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * @return How many times a changed file was reloaded and swapped in, excluding the initial load.
+     */
+    public long getSwapCount() {
+        return swapCount.get();
+    }
+
+    /**
+     * @return How long, in nanoseconds, the most recent swap took to load, or -1 if none happened yet.
+     */
+    public long getLastSwapNanos() {
+        return lastSwapNanos;
+    }
+
+    /**
+     * @return The accumulated time, in nanoseconds, spent loading swapped-in values.
+     */
+    public long getTotalSwapNanos() {
+        return totalSwapNanos.get();
+    }
+
+    private T initialLoad() {
+        reloadLock.lock();
+        try {
+            Snapshot<T> current = snapshot;
+            if (current == null) {
+                current = load();
+                snapshot = current;
+                scheduleNextCheck();
+            }
+            return current.value;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void refresh(Snapshot<T> current) {
+        scheduleNextCheck();
+        if (!current.stale) {
+            BasicFileAttributes attributes = path != null ? readAttributes() : null;
+            if (attributes == null) {
+                return;
+            }
+            if (attributes.lastModifiedTime().toMillis() == current.lastModified && attributes.size() == current.size) {
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+        Snapshot<T> reloaded = load();
+        long duration = System.nanoTime() - start;
+
+        if (reloaded.value == null && current.value != null) {
+            logger.warn("Config file {} could not be reloaded, keeping the previously loaded config", path);
+            snapshot = new Snapshot<>(current.value, reloaded.lastModified, reloaded.size, false);
+            return;
+        }
+        snapshot = reloaded;
+        swapCount.incrementAndGet();
+        totalSwapNanos.addAndGet(duration);
+        lastSwapNanos = duration;
+        logger.info("Reloaded config file {} in {} microseconds", path, TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    private Snapshot<T> load() {
+        // read the attributes before the content, so a write racing with the load is picked up next time
+        BasicFileAttributes attributes = path != null ? readAttributes() : null;
+        T value = loader.get();
+        if (attributes == null) {
+            return new Snapshot<>(value, UNKNOWN, UNKNOWN, false);
+        }
+        return new Snapshot<>(value, attributes.lastModifiedTime().toMillis(), attributes.size(), false);
+    }
+
+    private BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            if (logger.isDebugEnabled())
+                logger.debug("Could not read the attributes of config file " + path, e);
+            return null;
+        }
+    }
+
+    private void scheduleNextCheck() {
+        nextCheckNanos = System.nanoTime() + checkIntervalNanos;
+    }
+
+    private static Path toPath(String filePath) {
+        if (filePath == null) {
+            return null;
+        }
+        try {
+            return Paths.get(filePath);
+        } catch (InvalidPathException e) {
+            logger.error("Invalid config file path " + filePath, e);
+            return null;
+        }
+    }
+
+    private static final class Snapshot<T> {
+        private final T value;
+        private final long lastModified;
+        private final long size;
+        private final boolean stale;
+
+        private Snapshot(T value, long lastModified, long size, boolean stale) {
+            this.value = value;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.stale = stale;
+        }
+    }
+}
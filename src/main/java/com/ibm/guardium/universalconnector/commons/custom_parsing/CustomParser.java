@@ -1,19 +1,28 @@
 package com.ibm.guardium.universalconnector.commons.custom_parsing;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.guardium.universalconnector.commons.IpAddresses;
 import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IntValues;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexExecutor;
 import com.ibm.guardium.universalconnector.commons.structures.*;
-import org.apache.commons.validator.routines.InetAddressValidator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static com.ibm.guardium.universalconnector.commons.custom_parsing.PropertyConstant.*;
 import static com.ibm.guardium.universalconnector.commons.structures.Accessor.DATA_TYPE_GUARDIUM_SHOULD_NOT_PARSE_SQL;
@@ -22,27 +31,232 @@ import static com.ibm.guardium.universalconnector.commons.structures.SessionLoca
 
 public abstract class CustomParser {
     private static final Logger logger = LogManager.getLogger(CustomParser.class);
-    private static final InetAddressValidator inetAddressValidator = InetAddressValidator.getInstance();
-    protected Map<String, String> properties;
+    protected volatile Map<String, String> properties;
     private final ObjectMapper mapper;
     private final IParser parser;
-    private boolean parseUsingSniffer = false;
-    private boolean hasSqlParsing = false;
+    private final ThreadLocal<ExtractionContext> context = new ThreadLocal<>();
+    private volatile ConfigCache<ParsingPlan> configCache;
+    private final LongAdder savedExtractions = new LongAdder();
+    private final LongAdder outOfTimeRecords = new LongAdder();
+    // whether a subclass builds the Accessor itself, which a LazyRecord must then call as a whole
+    private final boolean accessorOverridden;
+    // whether a subclass overrides getValue(String, String) or parse(String, String), which the built-in
+    // getters must then go through rather than straight to the plan
+    private final boolean valueOverridden;
+    private final boolean parseOverridden;
+    // whether a subclass overrides convertToInt(String, String), which the int getters must then call
+    private final boolean convertToIntOverridden;
 
     public CustomParser(ParserFactory.ParserType parserType) {
         parser = new ParserFactory().getParser(parserType);
         mapper = new ObjectMapper();
+        accessorOverridden = overrides("getAccessor", String.class);
+        valueOverridden = overrides("getValue", String.class, String.class);
+        parseOverridden = overrides("parse", String.class, String.class);
+        convertToIntOverridden = overrides("convertToInt", String.class, String.class);
+    }
+
+    private boolean overrides(String name, Class<?>... parameterTypes) {
+        for (Class<?> c = getClass(); c != CustomParser.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // declared further up, if at all
+            }
+        }
+        return false;
+    }
+
+    boolean isAccessorOverridden() {
+        return accessorOverridden;
     }
 
+    /**
+     * Parses a payload into a Record. A single parser instance may be called concurrently from any number
+     * of threads: all per-record state is kept in a context confined to the calling thread.
+     *
+     * @param payload The event payload.
+     * @return The Record, or null if the payload or the config is invalid, or if a {@link FilterRule} drops
+     * the event.
+     */
     public Record parseRecord(String payload) {
-        properties = getProperties();
+        ExtractionContext current = new ExtractionContext(getParsingPlan(), payload);
+        return extractInContext(current, () -> {
+            if (!isValid(payload)) {
+                return null;
+            }
+            LazyRecord record = new LazyRecord(this, current);
+            if (!current.plan.isKept(record)) {
+                return null;
+            }
+            // rules read the fields they test with the getters, so the Record keeps the values they read
+            return current.plan.hasFieldConditions() ? record.materialize() : extractRecord(payload);
+        });
+    }
+
+    /**
+     * Parses a payload into a {@link LazyRecord}, whose fields are only extracted when they are first read,
+     * e.g. so that events a filter drops after reading a couple of fields cost only those fields. The
+     * payload is validated and filtered at once.
+     *
+     * @param payload The event payload.
+     * @return The LazyRecord, or null if the payload or the config is invalid, or if a {@link FilterRule}
+     * drops the event.
+     */
+    public LazyRecord parseLazyRecord(String payload) {
+        ExtractionContext current = new ExtractionContext(getParsingPlan(), payload);
+        return extractInContext(current, () -> {
+            if (!isValid(payload)) {
+                return null;
+            }
+            LazyRecord record = new LazyRecord(this, current);
+            return current.plan.isKept(record) ? record : null;
+        });
+    }
+
+    /**
+     * Runs an extraction with the context of a record as the one of this thread, and its time budget as the
+     * deadline of the thread's regex matches. Extractions may nest, e.g. a lazy field read by another one.
+     */
+    <T> T extractInContext(ExtractionContext current, Supplier<T> extraction) {
+        ExtractionContext previous = context.get();
+        if (previous == current) {
+            return extraction.get();
+        }
+        context.set(current);
+        current.resume();
+        int previousSavedExtractions = current.getSavedExtractions();
+        boolean wasOutOfTime = current.isOutOfTime();
+        long previousDeadline = current.deadline != RegexExecutor.NO_DEADLINE ? RegexExecutor.setDeadline(current.deadline) : 0;
+        try {
+            return extraction.get();
+        } finally {
+            context.set(previous);
+            if (current.deadline != RegexExecutor.NO_DEADLINE) {
+                RegexExecutor.setDeadline(previousDeadline);
+            }
+            current.pause();
+            if (current.getSavedExtractions() > previousSavedExtractions) {
+                savedExtractions.add(current.getSavedExtractions() - previousSavedExtractions);
+            }
+            if (current.isOutOfTime() && !wasOutOfTime) {
+                outOfTimeRecords.increment();
+            }
+        }
+    }
 
-        if (!isValid(payload)) return null;
+    /**
+     * Parses a payload received as UTF-8 bytes, e.g. straight from the network, into a Record.
+     *
+     * @param bytes  The bytes of the event payload.
+     * @param offset The index of the first byte of the payload.
+     * @param length The number of bytes of the payload.
+     * @return The Record, or null if the payload or the config is invalid.
+     */
+    public Record parseRecord(byte[] bytes, int offset, int length) {
+        return parseRecord(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the remaining bytes of a buffer, in UTF-8, into a Record. The position of the buffer is not
+     * changed.
+     *
+     * @param buffer The bytes of the event payload.
+     * @return The Record, or null if the payload or the config is invalid.
+     */
+    public Record parseRecord(ByteBuffer buffer) {
+        return parseRecord(StandardCharsets.UTF_8.decode(buffer.duplicate()).toString());
+    }
+
+    /**
+     * Returns how many field extractions were avoided because the field had already been extracted from
+     * the same record, e.g. by a getter falling back on another one, or by a subclass override.
+     */
+    public long getSavedExtractionCount() {
+        return savedExtractions.sum();
+    }
+
+    /**
+     * Returns how many records ran out of the time budget of {@link PropertyConstant#RECORD_TIMEOUT_MICROS},
+     * and so had some of their fields left to their defaults.
+     */
+    public long getOutOfTimeRecordCount() {
+        return outOfTimeRecords.sum();
+    }
+
+    /**
+     * Parses a batch of payloads, spread across the threads of {@link #getForkJoinPool()}. A payload that
+     * fails with an exception is reported in its result and does not abort the batch.
+     *
+     * @param payloads The event payloads.
+     * @return The results, in the order of the payloads.
+     */
+    public List<ParseResult> parseRecords(List<String> payloads) {
+        ParseResult[] results = new ParseResult[payloads.size()];
+        if (results.length == 1) {
+            results[0] = parseResult(payloads.get(0));
+        } else if (results.length > 1) {
+            ForkJoinPool pool = getForkJoinPool();
+            int chunk = Math.max(1, results.length / (pool.getParallelism() * 4));
+            pool.invoke(new ParseTask(payloads.toArray(new String[0]), results, 0, results.length, chunk));
+        }
+        return Arrays.asList(results);
+    }
 
-        hasSqlParsing = SqlParser.hasSqlParsing(properties);
-        parseUsingSniffer = hasSqlParsing && SqlParser.isSnifferParsing(payload);
+    /**
+     * Parses a stream of payloads lazily. The stream keeps the order and the parallelism of the payloads; a
+     * parallel stream runs in the pool its terminal operation is called from, e.g. inside
+     * {@code getForkJoinPool().submit(...)}. A payload that fails with an exception is reported in its result.
+     *
+     * @param payloads The event payloads.
+     * @return The results.
+     */
+    public Stream<ParseResult> parseRecords(Stream<String> payloads) {
+        return payloads.map(this::parseResult);
+    }
 
-        return extractRecord(payload);
+    private ParseResult parseResult(String payload) {
+        try {
+            return ParseResult.success(payload, parseRecord(payload));
+        } catch (RuntimeException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to parse event-payload: {}", payload, e);
+            }
+            return ParseResult.failure(payload, e);
+        }
+    }
+
+    // parses a range of a batch, splitting it in halves down to the chunk size
+    private final class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] payloads;
+        private final ParseResult[] results;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        ParseTask(String[] payloads, ParseResult[] results, int from, int to, int chunk) {
+            this.payloads = payloads;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    results[i] = parseResult(payloads[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseTask(payloads, results, from, middle, chunk),
+                    new ParseTask(payloads, results, middle, to, chunk));
+        }
     }
 
     private Record extractRecord(String payload) {
@@ -63,8 +277,97 @@ public abstract class CustomParser {
         return record;
     }
 
+    /**
+     * Returns the plan of the record being parsed by this thread, or the current one outside of
+     * {@link #parseRecord(String)}.
+     *
+     * @return The plan, or null if the config could not be loaded.
+     */
+    protected ParsingPlan getParsingPlan() {
+        ExtractionContext current = context.get();
+        if (current != null) {
+            return current.plan;
+        }
+        ParsingPlan plan = getConfigCache().get();
+        Map<String, String> planProperties = plan != null ? plan.getProperties() : null;
+        if (properties != planProperties) {
+            properties = planProperties;
+        }
+        return plan;
+    }
+
+    /**
+     * Extracts a field by its config key. When a subclass overrides {@link #parse(String, String)}, the
+     * expression configured for the key is passed to it, and the field is neither memoized nor bound by the
+     * features of the {@link ParsingPlan}; otherwise the plan extracts the field.
+     */
     protected String getValue(String payload, String fieldName) {
-        return parse(payload, properties.get(fieldName));
+        ParsingPlan plan = getParsingPlan();
+        if (plan == null) return null;
+
+        if (parseOverridden) {
+            Object expression = plan.getProperties().get(fieldName);
+            return expression instanceof String ? parse(payload, (String) expression) : null;
+        }
+        int slot = plan.getSlot(fieldName);
+        return slot >= 0 ? getValue(plan, payload, slot) : null;
+    }
+
+    /**
+     * Extracts a field by its slot in the {@link ParsingPlan}, which avoids looking its key up. The built-in
+     * getters use this method. It goes through {@link #getValue(String, String)} when a subclass overrides
+     * that method or {@link #parse(String, String)}.
+     */
+    protected String getValue(String payload, PropertyField field) {
+        if (valueOverridden || parseOverridden) {
+            return getValue(payload, field.getKey());
+        }
+        ParsingPlan plan = getParsingPlan();
+        return plan != null ? getValue(plan, payload, field.ordinal()) : null;
+    }
+
+    private String getValue(ParsingPlan plan, String payload, int slot) {
+        return getContext(plan, payload).extract(slot);
+    }
+
+    /**
+     * Extracts an int field by its slot in the {@link ParsingPlan}. The value is parsed where it lies in the
+     * payload when possible, or from the value {@link #getValue(String, PropertyField)} returns when a
+     * subclass overrides its hooks; neither a missing nor an invalid value throws an exception.
+     *
+     * @return The int value, or a status of {@link IntValues}.
+     */
+    protected long getIntValue(String payload, PropertyField field) {
+        if (valueOverridden || parseOverridden) {
+            return IntValues.parse(getValue(payload, field));
+        }
+        ParsingPlan plan = getParsingPlan();
+        return plan != null ? getContext(plan, payload).extractInt(field.ordinal()) : IntValues.MISSING;
+    }
+
+    private ExtractionContext getContext(ParsingPlan plan, String payload) {
+        ExtractionContext current = context.get();
+        if (current != null && current.payload == payload) {
+            return current;
+        }
+        // a payload other than the record's, e.g. a fragment a subclass extracts from
+        return current != null ? new ExtractionContext(plan, payload, current.deadline) : new ExtractionContext(plan, payload);
+    }
+
+    // the int value of a field, through convertToInt if a subclass overrides it
+    private int getIntValue(String payload, PropertyField field, int defaultValue) {
+        if (convertToIntOverridden) {
+            Integer value = convertToInt(field.getKey(), getValue(payload, field));
+            return value != null ? value : defaultValue;
+        }
+        long value = getIntValue(payload, field);
+        if (IntValues.isInt(value)) {
+            return (int) value;
+        }
+        if (value != IntValues.MISSING && logger.isDebugEnabled()) {
+            logger.debug(field.getKey() + " is not a valid integer.");
+        }
+        return defaultValue;
     }
 
     protected String parse(String payload, String key) {
@@ -89,24 +392,24 @@ public abstract class CustomParser {
     }
 
     protected String getExceptionTypeId(String payload) {
-        String value = getValue(payload, EXCEPTION_TYPE_ID);
+        String value = getValue(payload, PropertyField.EXCEPTION_TYPE_ID);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getAppUserName(String payload) {
-        String value = getValue(payload, APP_USER_NAME);
+        String value = getValue(payload, PropertyField.APP_USER_NAME);
         return value != null ? value : DEFAULT_STRING;
     }
 
 
     protected String getClientIpv6(String payload) {
-        String value = getValue(payload, CLIENT_IPV6);
+        String value = getValue(payload, PropertyField.CLIENT_IPV6);
         return value != null ? value : DEFAULT_IPV6;
     }
 
 
     protected String getClientIp(String payload) {
-        String value = getValue(payload, CLIENT_IP);
+        String value = getValue(payload, PropertyField.CLIENT_IP);
         return value != null ? value : DEFAULT_IP;
     }
 
@@ -118,13 +421,14 @@ public abstract class CustomParser {
 
     protected Data getData(String payload, String sqlString) {
         Data data = new Data();
-        if (!hasSqlParsing || parseUsingSniffer) {
+        ParsingPlan plan = getParsingPlan();
+        if (!plan.hasSqlParsing() || plan.isParseUsingSniffer()) {
             return data;
         }
 
         //If it reaches out this point it is a regex parsing and object and verb are not null
-        String object = getValue(payload, OBJECT);
-        String verb = getValue(payload, VERB);
+        String object = getValue(payload, PropertyField.OBJECT);
+        String verb = getValue(payload, PropertyField.VERB);
         Construct construct = new Construct();
         Sentence sentence = new Sentence(verb);
         SentenceObject sentenceObject = new SentenceObject(object);
@@ -139,48 +443,47 @@ public abstract class CustomParser {
 
 
     protected Boolean isIpv6(String payload) {
-        String value = getValue(payload, IS_IPV6);
+        String value = getValue(payload, PropertyField.IS_IPV6);
         return Boolean.parseBoolean(value);
     }
 
     protected Integer getMinDst(String payload) {
-        Integer value = convertToInt(MIN_DST, getValue(payload, MIN_DST));
-        return value != null ? value : 0;
+        return getIntValue(payload, PropertyField.MIN_DST, 0);
     }
 
     protected Integer getMinOffsetFromGMT(String payload) {
-        Integer value = convertToInt(MIN_OFFSET_FROM_GMT, getValue(payload, MIN_OFFSET_FROM_GMT));
-        return value != null ? value : ZERO;
+        return getIntValue(payload, PropertyField.MIN_OFFSET_FROM_GMT, ZERO);
     }
 
     protected String getOriginalSqlCommand(String payload) {
-        String value = getValue(payload, ORIGINAL_SQL_COMMAND);
+        String value = getValue(payload, PropertyField.ORIGINAL_SQL_COMMAND);
         return value != null ? value : getSqlString(payload);
     }
 
     protected String getServerIp(String payload) {
-        String value = getValue(payload, SERVER_IP);
+        String value = getValue(payload, PropertyField.SERVER_IP);
         return value != null ? value : DEFAULT_IP;
     }
 
     protected String getServerIpv6(String payload) {
-        String value = getValue(payload, SERVER_IPV6);
+        String value = getValue(payload, PropertyField.SERVER_IPV6);
         return value != null ? value : DEFAULT_IPV6;
     }
 
 
     // method to handle the SQL command that caused the exception
     protected String getSqlString(String payload) {
-        String value = getValue(payload, SQL_STRING);
+        String value = getValue(payload, PropertyField.SQL_STRING);
         return value != null ? value : DEFAULT_STRING;  // Set the SQL command that caused the exception
     }
 
     // In this setTimestamp method now parses the timestamp from the payload and sets the timestamp, minOffsetFromGMT, and minDst fields in the Time object of the Record. If the timestamp is not available, it sets default values.
     protected Time getTimestamp(String payload) {
-        String value = getValue(payload, TIMESTAMP);
+        String value = getValue(payload, PropertyField.TIMESTAMP);
         Time time;
         if (value != null) {
-            time = parseTimestamp(value);
+            ParsingPlan plan = getParsingPlan();
+            time = plan != null ? plan.getTimestampFormats().parse(value) : parseTimestamp(value);
         } else {
             time = new Time(0L, 0, 0);
         }
@@ -200,17 +503,32 @@ public abstract class CustomParser {
         boolean isIpV6 = isIpv6(payload);
         String clientIp = getClientIp(payload);
         String clientIpv6 = getClientIpv6(payload);
-        if (isIpV6 && inetAddressValidator.isValidInet6Address(clientIpv6)) {
+        long clientIpv4Address;
+        if (isIpV6 && IpAddresses.isValidIpv6(clientIpv6)) {
             // If client IP is IPv6, set both client and server to IPv6
             sessionLocator.setIpv6(true);
             sessionLocator.setClientIpv6(clientIpv6);
-            sessionLocator.setServerIpv6(getServerIpv6(payload)); // Set server IP to default IPv6
-
-        } else if (inetAddressValidator.isValidInet4Address(clientIp)) {
+            String serverIpv6 = getServerIpv6(payload);
+            sessionLocator.setServerIpv6(serverIpv6); // Set server IP to default IPv6
+
+            byte[] address = new byte[IpAddresses.IPV6_BYTES];
+            IpAddresses.parseIpv6(clientIpv6, address);
+            sessionLocator.setClientIpv6Address(address);
+            address = new byte[IpAddresses.IPV6_BYTES];
+            if (IpAddresses.parseIpv6(serverIpv6, address)) {
+                sessionLocator.setServerIpv6Address(address);
+            }
+        } else if ((clientIpv4Address = IpAddresses.parseIpv4(clientIp)) >= 0) {
             // If client IP is IPv4, set both client and server IP to IPv4
             sessionLocator.setClientIp(clientIp);
             // Cloud Databases: Set server IP to 0.0.0.0
-            sessionLocator.setServerIp(getServerIp(payload));
+            String serverIp = getServerIp(payload);
+            sessionLocator.setServerIp(serverIp);
+
+            long serverIpv4Address = IpAddresses.parseIpv4(serverIp);
+            if (serverIpv4Address >= 0) {
+                sessionLocator.setIpv4Addresses((int) clientIpv4Address, (int) serverIpv4Address);
+            }
         }
 
         // Set port numbers
@@ -221,11 +539,7 @@ public abstract class CustomParser {
     }
 
     public static Time parseTimestamp(String timestamp) {
-        ZonedDateTime date = ZonedDateTime.parse(timestamp, DateTimeFormatter.ISO_DATE_TIME);
-        long millis = date.toInstant().toEpochMilli();
-        int minOffset = date.getOffset().getTotalSeconds() / 60;
-        int minDst = date.getZone().getRules().isDaylightSavings(date.toInstant()) ? 60 : 0;
-        return new Time(millis, minOffset, minDst);
+        return TimestampParser.parse(timestamp);
     }
 
     // Updated method to check accessor.dataType and populate original_sql_command or construct
@@ -253,121 +567,157 @@ public abstract class CustomParser {
     }
 
     protected String getServiceName(String payload) {
-        String value = getValue(payload, SERVICE_NAME);
+        String value = getValue(payload, PropertyField.SERVICE_NAME);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getDbUser(String payload) {
-        String value = getValue(payload, DB_USER);
+        String value = getValue(payload, PropertyField.DB_USER);
         return value != null ? value : DATABASE_NOT_AVAILABLE;
     }
 
 
     protected String getDbName(String payload) {
-        String value = getValue(payload, DB_NAME);
+        String value = getValue(payload, PropertyField.DB_NAME);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getDbProtocol(String payload) {
-        String value = getValue(payload, DB_PROTOCOL);
+        String value = getValue(payload, PropertyField.DB_PROTOCOL);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getServerOs(String payload) {
-        String value = getValue(payload, SERVER_OS);
+        String value = getValue(payload, PropertyField.SERVER_OS);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getClientOs(String payload) {
-        String value = getValue(payload, CLIENT_OS);
+        String value = getValue(payload, PropertyField.CLIENT_OS);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getClientHostName(String payload) {
-        String value = getValue(payload, CLIENT_HOSTNAME);
+        String value = getValue(payload, PropertyField.CLIENT_HOSTNAME);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getCommProtocol(String payload) {
-        String value = getValue(payload, COMM_PROTOCOL);
+        String value = getValue(payload, PropertyField.COMM_PROTOCOL);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getDbProtocolVersion(String payload) {
-        String value = getValue(payload, DB_PROTOCOL_VERSION);
+        String value = getValue(payload, PropertyField.DB_PROTOCOL_VERSION);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getOsUser(String payload) {
-        String value = getValue(payload, OS_USER);
+        String value = getValue(payload, PropertyField.OS_USER);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getSourceProgram(String payload) {
-        String value = getValue(payload, SOURCE_PROGRAM);
+        String value = getValue(payload, PropertyField.SOURCE_PROGRAM);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getClientMac(String payload) {
-        String value = getValue(payload, CLIENT_MAC);
+        String value = getValue(payload, PropertyField.CLIENT_MAC);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getServerDescription(String payload) {
-        String value = getValue(payload, SERVER_DESCRIPTION);
+        String value = getValue(payload, PropertyField.SERVER_DESCRIPTION);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getServerHostName(String payload) {
-        String value = getValue(payload, SERVER_HOSTNAME);
+        String value = getValue(payload, PropertyField.SERVER_HOSTNAME);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getServerType(String payload) {
         //this has been validated before
-        if (parseUsingSniffer)
-            return SqlParser.getServerType(properties.get(SNIFFER_PARSER));
+        ParsingPlan plan = getParsingPlan();
+        if (plan.isParseUsingSniffer())
+            return SqlParser.getServerType(plan.getSnifferParser());
 
-        String value = getValue(payload, SERVER_TYPE);
+        String value = getValue(payload, PropertyField.SERVER_TYPE);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected String getLanguage(String payload) {
         //this has been validated before
-        if (parseUsingSniffer)
-            return properties.get(SNIFFER_PARSER);
+        ParsingPlan plan = getParsingPlan();
+        if (plan.isParseUsingSniffer())
+            return plan.getSnifferParser();
 
         return Accessor.LANGUAGE_FREE_TEXT_STRING;
     }
 
     protected String getDataType(String payload) {
-        if (parseUsingSniffer)
-            return properties.get(DATA_TYPE_GUARDIUM_SHOULD_PARSE_SQL);
+        if (getParsingPlan().isParseUsingSniffer())
+            return DATA_TYPE_GUARDIUM_SHOULD_PARSE_SQL;
 
         return DATA_TYPE_GUARDIUM_SHOULD_NOT_PARSE_SQL;
     }
 
     protected String getSessionId(String payload) {
-        String value = getValue(payload, SESSION_ID);
+        String value = getValue(payload, PropertyField.SESSION_ID);
         return value != null ? value : DEFAULT_STRING;
     }
 
     protected Integer getClientPort(String sessionId, String payload) {
         if (sessionId.isEmpty()) return PORT_DEFAULT;
 
-        Integer value = convertToInt(CLIENT_PORT, getValue(payload, CLIENT_PORT));
-        return value != null ? value : PORT_DEFAULT;
+        return getIntValue(payload, PropertyField.CLIENT_PORT, PORT_DEFAULT);
     }
 
     protected Integer getServerPort(String sessionId, String payload) {
         if (sessionId.isEmpty()) return PORT_DEFAULT;
 
-        Integer value = convertToInt(SERVER_PORT, getValue(payload, SERVER_PORT));
-        return value != null ? value : PORT_DEFAULT;
+        return getIntValue(payload, PropertyField.SERVER_PORT, PORT_DEFAULT);
     }
 
     public abstract String getConfigFilePath();
 
+    /**
+     * Returns how often, in milliseconds, the config file is checked for changes. Override to tune how
+     * quickly edits to the config file are picked up.
+     */
+    protected long getConfigCheckIntervalMillis() {
+        return ConfigCache.DEFAULT_CHECK_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Returns the pool {@link #parseRecords(List)} runs on. Override to isolate parsing from other users of
+     * the common pool, or to bound the number of threads it uses.
+     */
+    protected ForkJoinPool getForkJoinPool() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns the cache holding the plan compiled from {@link #getProperties()}. The config file is read and
+     * compiled once, and again only when it changes; the cache also exposes how often, and at what cost,
+     * that happened.
+     */
+    public ConfigCache<ParsingPlan> getConfigCache() {
+        ConfigCache<ParsingPlan> cache = configCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = configCache;
+                if (cache == null) {
+                    cache = new ConfigCache<>(getConfigFilePath(), () -> ParsingPlan.compile(getProperties(), parser),
+                            getConfigCheckIntervalMillis());
+                    configCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     public Map<String, String> getProperties() {
         try {
             String content = new String(Files.readAllBytes(Paths.get(getConfigFilePath())));
@@ -378,18 +728,26 @@ public abstract class CustomParser {
         }
     }
 
+    /**
+     * Converts the value of an int field. The built-in int getters parse their field without this method,
+     * without allocating or throwing, unless a subclass overrides it: they then pass it the value of the
+     * field.
+     *
+     * @return The int value, or null if the value is missing or not a valid int.
+     */
     protected Integer convertToInt(String fieldName, String value) {
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            if (logger.isDebugEnabled())
-                logger.debug(fieldName + " " + value + "is not a valid integer.");
+        long result = IntValues.parse(value);
+        if (IntValues.isInt(result)) {
+            return (int) result;
         }
+        if (result != IntValues.MISSING && logger.isDebugEnabled())
+            logger.debug(fieldName + " " + value + " is not a valid integer.");
         return null;
     }
 
     protected boolean isValid(String payload) {
-        if (properties == null) {
+        ParsingPlan plan = getParsingPlan();
+        if (plan == null) {
             logger.error("The provided config file is invalid.");
             return false;
         }
@@ -399,7 +757,7 @@ public abstract class CustomParser {
             return false;
         }
 
-        SqlParser.ValidityCase isValid = SqlParser.isValid(properties);
+        SqlParser.ValidityCase isValid = plan.getValidity();
         if (!isValid.equals(SqlParser.ValidityCase.VALID)) {
             logger.error(isValid.getDescription());
             return false;
@@ -0,0 +1,242 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IFieldExtractor;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IntValues;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexExecutor;
+
+import java.util.Arrays;
+
+/**
+ * The state of the record a {@link CustomParser} is currently parsing. It is confined to the parsing
+ * thread, or to the reader of a {@link LazyRecord}, which keeps the parser itself free of per-record state.
+ */
+final class ExtractionContext {
+    private static final long NOT_LOCATED = Long.MIN_VALUE;
+
+    final ParsingPlan plan;
+    final String payload;
+    // when the fields of the record must be extracted by, as a System.nanoTime() value
+    long deadline;
+    // the time budget of the record, and the part of it spent before the last pause; 0 if there is none
+    private final long budgetNanos;
+    private long spentNanos;
+    private boolean outOfTime;
+    private String[] multiFieldValues;
+    private String[] batchValues;
+    // the values of the fields of field_order, extracted up to nextPosition, and where the next one is
+    // searched from
+    private String[] orderedValues;
+    private int nextPosition;
+    private int cursor;
+    // the bounds of each region, located on the first request for a field bound to it
+    private long[] regionBounds;
+    // the required literals found in the payload, searched on the first request for a field that has any
+    private boolean[] literalsFound;
+    // the value of every field extracted so far; null is a valid value, hence the separate flags
+    private String[] values;
+    private boolean[] extracted;
+    private int savedExtractions;
+
+    ExtractionContext(ParsingPlan plan, String payload) {
+        this.plan = plan;
+        this.payload = payload;
+        this.budgetNanos = plan != null ? plan.getRecordTimeoutNanos() : 0;
+        this.deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : RegexExecutor.NO_DEADLINE;
+    }
+
+    /**
+     * @param deadline The deadline of the record, e.g. of the record a fragment of which is the payload.
+     */
+    ExtractionContext(ParsingPlan plan, String payload, long deadline) {
+        this.plan = plan;
+        this.payload = payload;
+        this.budgetNanos = 0;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Resumes the time budget of the record after {@link #pause()}, e.g. when a lazy record is read
+     * again, so that the budget only counts the time spent extracting.
+     */
+    void resume() {
+        if (budgetNanos > 0) {
+            deadline = System.nanoTime() + budgetNanos - spentNanos;
+        }
+    }
+
+    /**
+     * Stops the time budget of the record until {@link #resume()}.
+     */
+    void pause() {
+        if (budgetNanos > 0) {
+            spentNanos = budgetNanos - Math.max(0, deadline - System.nanoTime());
+        }
+    }
+
+    /**
+     * Extracts the field in the given slot from the payload of the record. Each field is extracted at most
+     * once per record; later requests, e.g. from getters that fall back on one another, reuse its value.
+     */
+    String extract(int slot) {
+        if (values == null) {
+            values = new String[plan.getSlotCount()];
+            extracted = new boolean[values.length];
+        } else if (extracted[slot]) {
+            savedExtractions++;
+            return values[slot];
+        }
+        String value = extractField(slot);
+        values[slot] = value;
+        extracted[slot] = true;
+        return value;
+    }
+
+    /**
+     * @return Whether the time budget of the record ran out, so that some fields were not extracted.
+     */
+    boolean isOutOfTime() {
+        return outOfTime;
+    }
+
+    private boolean checkOutOfTime() {
+        if (!outOfTime && deadline != RegexExecutor.NO_DEADLINE && System.nanoTime() - deadline >= 0) {
+            outOfTime = true;
+        }
+        return outOfTime;
+    }
+
+    /**
+     * @return The number of requests answered from the values already extracted.
+     */
+    int getSavedExtractions() {
+        return savedExtractions;
+    }
+
+    /**
+     * Extracts the field in the given slot. Constant fields are answered at once, and derived fields from the
+     * fields they reference. Fields covered by the multi-field regexes are read from their single pass, which
+     * runs on the first such request, and so are fields the parser extracts all together. Fields of
+     * field_order are extracted in that order, and fields bound to a region are matched in it. Fields are
+     * skipped when the payload lacks a literal their expression requires, and no field is extracted once the
+     * time budget of the record has run out.
+     */
+    private String extractField(int slot) {
+        String constant = plan.getConstant(slot);
+        if (constant != null) {
+            return constant;
+        }
+        FieldTemplate template = plan.getTemplate(slot);
+        if (template != null) {
+            return template.resolve(this);
+        }
+        if (checkOutOfTime()) {
+            return null;
+        }
+        if (plan.isMultiField(slot)) {
+            if (multiFieldValues == null) {
+                multiFieldValues = new String[plan.getSlotCount()];
+                plan.extractMultiField(payload, multiFieldValues);
+            }
+            String value = multiFieldValues[slot];
+            if (value != null) {
+                return value;
+            }
+        }
+        if (plan.isBatched(slot)) {
+            if (batchValues == null) {
+                batchValues = new String[plan.getSlotCount()];
+                plan.extractBatch(payload, batchValues);
+            }
+            return batchValues[slot];
+        }
+        int position = plan.getOrderPosition(slot);
+        if (position >= 0) {
+            return extractInOrder(position);
+        }
+        if (!mayMatch(slot)) {
+            return null;
+        }
+        int region = plan.getRegion(slot);
+        if (region < 0) {
+            return plan.extract(payload, slot);
+        }
+        long bounds = locateRegion(region);
+        return bounds < 0 ? null : plan.extract(payload, slot, IFieldExtractor.start(bounds), IFieldExtractor.end(bounds));
+    }
+
+    // the bounds of the region in the payload, or -1 if the payload does not have it
+    private long locateRegion(int region) {
+        if (regionBounds == null) {
+            regionBounds = new long[plan.getRegionCount()];
+            Arrays.fill(regionBounds, NOT_LOCATED);
+        }
+        if (regionBounds[region] == NOT_LOCATED) {
+            regionBounds[region] = plan.locateRegion(payload, region);
+        }
+        return regionBounds[region];
+    }
+
+    /**
+     * Extracts the fields of field_order up to the given position, each searched from where the previous one
+     * ended. A field that is not found there is searched in the whole payload, and the next field is then
+     * searched from where the previous one found ended.
+     */
+    private String extractInOrder(int position) {
+        if (orderedValues == null) {
+            orderedValues = new String[plan.getOrderedCount()];
+        }
+        while (nextPosition <= position && !checkOutOfTime()) {
+            int slot = plan.getOrderedSlot(nextPosition);
+            String value = null;
+            if (mayMatch(slot)) {
+                long bounds = plan.find(payload, slot, cursor);
+                if (bounds >= 0) {
+                    value = payload.substring(IFieldExtractor.start(bounds), IFieldExtractor.end(bounds));
+                    cursor = IFieldExtractor.end(bounds);
+                } else if (bounds == IFieldExtractor.UNSUPPORTED || cursor > 0) {
+                    value = plan.extract(payload, slot);
+                }
+            }
+            orderedValues[nextPosition++] = value;
+        }
+        return orderedValues[position];
+    }
+
+    /**
+     * Extracts the int field in the given slot without exceptions. A field extracted by its own expression
+     * is parsed where it lies in the payload, and is not memoized.
+     *
+     * @return The int value, or a status of {@link IntValues}.
+     */
+    long extractInt(int slot) {
+        if (values != null && extracted[slot]) {
+            savedExtractions++;
+            return IntValues.parse(values[slot]);
+        }
+        if (!isParsedInPlace(slot)) {
+            return IntValues.parse(extract(slot));
+        }
+        if (checkOutOfTime()) {
+            return IntValues.MISSING;
+        }
+        return mayMatch(slot) ? plan.extractInt(payload, slot) : IntValues.MISSING;
+    }
+
+    // whether the int value of the field is parsed where its own expression finds it in the whole payload
+    private boolean isParsedInPlace(int slot) {
+        return !plan.isMultiField(slot) && !plan.isBatched(slot) && plan.getOrderPosition(slot) < 0 && plan.getRegion(slot) < 0
+                && plan.getConstant(slot) == null && plan.getTemplate(slot) == null;
+    }
+
+    // false if the payload lacks a literal the expression of the field requires
+    private boolean mayMatch(int slot) {
+        LiteralPrefilter prefilter = plan.getPrefilter();
+        if (prefilter == null || !prefilter.hasLiterals(slot)) {
+            return true;
+        }
+        if (literalsFound == null) {
+            literalsFound = prefilter.search(payload);
+        }
+        return prefilter.mayMatch(slot, literalsFound);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The value of a field derived from other fields, declared in {@link PropertyConstant#DERIVED_FIELDS} as a
+ * template such as {@code ${db_user}@${server_hostname}}. The template is parsed once, when the config is
+ * compiled, into the literal text around each reference and the slot the reference names, so that resolving
+ * it for an event only concatenates the values of those fields.
+ */
+final class FieldTemplate {
+    private final String[] literals;
+    private final int[] slots;
+
+    private FieldTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * @param template A template, in which each ${key} references the field of that key.
+     * @param slots    The slots of the fields, by key.
+     * @return The compiled template.
+     * @throws IllegalArgumentException If a reference is not closed or does not name a field.
+     */
+    static FieldTemplate compile(String template, Map<String, Integer> slots) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> references = new ArrayList<>();
+        int index = 0;
+        int start;
+        while ((start = template.indexOf("${", index)) >= 0) {
+            int end = template.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("The reference at index " + start + " of " + template + " is not closed");
+            }
+            String key = template.substring(start + 2, end);
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                throw new IllegalArgumentException("The reference to " + key + " in " + template + " does not name a field");
+            }
+            literals.add(template.substring(index, start));
+            references.add(slot);
+            index = end + 1;
+        }
+        literals.add(template.substring(index));
+
+        int[] referenceSlots = new int[references.size()];
+        for (int i = 0; i < referenceSlots.length; i++) {
+            referenceSlots[i] = references.get(i);
+        }
+        return new FieldTemplate(literals.toArray(new String[0]), referenceSlots);
+    }
+
+    /**
+     * @return The slots of the fields the template references.
+     */
+    int[] getSlots() {
+        return slots.clone();
+    }
+
+    /**
+     * @param context The record to resolve the template for.
+     * @return The value of the template, or null if a field it references is not present in the record.
+     */
+    String resolve(ExtractionContext context) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder value = new StringBuilder(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String reference = context.extract(slots[i]);
+            if (reference == null) {
+                return null;
+            }
+            value.append(reference).append(literals[i + 1]);
+        }
+        return value.toString();
+    }
+}
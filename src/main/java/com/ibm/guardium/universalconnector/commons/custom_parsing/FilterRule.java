@@ -0,0 +1,149 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A rule of {@link PropertyConstant#FILTER_RULES} that keeps or drops events before their Record is built. A
+ * rule matches an event when all of its conditions hold:
+ * <ul>
+ * <li>payload_contains: a literal the raw payload contains, found without extracting any field;
+ * <li>field, with equals (a value or a list of them), prefix or contains: a condition on the value the Record
+ * holds for the field, read with the getter of the parser that builds the Record, e.g. the server type the
+ * sniffer_parser implies, or a getter a subclass overrides. The getter is called once, for the rule and the
+ * Record. Ports are compared as decimal numbers; fields the Record holds in another form, e.g. the timestamp,
+ * and custom fields are compared as extracted.
+ * </ul>
+ * A rule without conditions matches every event, e.g. to drop all the events no earlier rule kept. Rules are
+ * evaluated in order and the first that matches decides; events that no rule matches are kept.
+ */
+public final class FilterRule {
+    public enum Action {
+        KEEP, DROP
+    }
+
+    private static final Set<String> KEYS = new HashSet<>(Arrays.asList(
+            "name", "action", "payload_contains", "field", "equals", "prefix", "contains"));
+
+    private final String name;
+    private final Action action;
+    private final String payloadLiteral;
+    // the key of the field condition, or null if there is none, and its field unless it is a custom field
+    private final String key;
+    private final PropertyField field;
+    private final Set<String> values;
+    private final String prefix;
+    private final String infix;
+    private final LongAdder matches = new LongAdder();
+
+    private FilterRule(String name, Action action, String payloadLiteral, String key, PropertyField field,
+                       Set<String> values, String prefix, String infix) {
+        this.name = name;
+        this.action = action;
+        this.payloadLiteral = payloadLiteral;
+        this.key = key;
+        this.field = field;
+        this.values = values;
+        this.prefix = prefix;
+        this.infix = infix;
+    }
+
+    /**
+     * @param position The position of the rule in the setting, which names a rule that has no name.
+     * @param rule     The rule, as deserialized from the config.
+     * @param slots    The slots of the fields, by key.
+     * @throws IllegalArgumentException If the rule is invalid.
+     */
+    static FilterRule compile(int position, Object rule, Map<String, Integer> slots) {
+        if (!(rule instanceof Map)) {
+            throw new IllegalArgumentException("A rule should be an object, not " + rule);
+        }
+        Map<?, ?> map = (Map<?, ?>) rule;
+        for (Object key : map.keySet()) {
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown rule key " + key);
+            }
+        }
+        String name = map.get("name") != null ? map.get("name").toString() : "rule " + (position + 1);
+        Action action;
+        try {
+            action = Action.valueOf(String.valueOf(map.get("action")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The action of " + name + " should be keep or drop, not " + map.get("action"), e);
+        }
+        String payloadLiteral = string(map, "payload_contains");
+
+        String key = null;
+        PropertyField propertyField = null;
+        Set<String> values = null;
+        Object equals = map.get("equals");
+        String prefix = string(map, "prefix");
+        String infix = string(map, "contains");
+        Object field = map.get("field");
+        if (field != null) {
+            Integer fieldSlot = slots.get(field.toString());
+            if (fieldSlot == null) {
+                throw new IllegalArgumentException("The field of " + name + ", " + field + ", is not a field");
+            }
+            key = field.toString();
+            // the slots of the fields of PropertyField are their ordinals, and custom fields follow them
+            if (fieldSlot < PropertyField.values().length) {
+                propertyField = PropertyField.values()[fieldSlot];
+            }
+            if (equals != null) {
+                values = new HashSet<>(ParsingPlan.stringList("equals", equals));
+            }
+            if (values == null && prefix == null && infix == null) {
+                throw new IllegalArgumentException("The field condition of " + name + " needs equals, prefix or contains");
+            }
+        } else if (equals != null || prefix != null || infix != null) {
+            throw new IllegalArgumentException("The value conditions of " + name + " need a field");
+        }
+        return new FilterRule(name, action, payloadLiteral, key, propertyField, values, prefix, infix);
+    }
+
+    private static String string(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * @return Whether the rule has a field condition, which reads a field of the Record.
+     */
+    boolean hasFieldCondition() {
+        return key != null;
+    }
+
+    /**
+     * Evaluates the rule against a record, and counts it if it matches.
+     */
+    boolean matches(LazyRecord record) {
+        if (payloadLiteral != null && !record.getPayload().contains(payloadLiteral)) {
+            return false;
+        }
+        if (key != null) {
+            String value = record.getFieldValue(field, key);
+            if (value == null || values != null && !values.contains(value) || prefix != null && !value.startsWith(prefix)
+                    || infix != null && !value.contains(infix)) {
+                return false;
+            }
+        }
+        matches.increment();
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return The number of events the rule decided on since the config was loaded.
+     */
+    public long getMatchCount() {
+        return matches.sum();
+    }
+}
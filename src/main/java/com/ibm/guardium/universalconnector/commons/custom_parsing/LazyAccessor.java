@@ -0,0 +1,286 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Accessor;
+
+/**
+ * The Accessor of a {@link LazyRecord}: each field is extracted when it is first read, with the getter of the
+ * parser that {@link CustomParser#parseRecord(String)} would call, unless it was set.
+ */
+final class LazyAccessor extends Accessor {
+    private static final int DB_USER = 1;
+    private static final int SERVER_TYPE = 1 << 1;
+    private static final int SERVER_OS = 1 << 2;
+    private static final int CLIENT_OS = 1 << 3;
+    private static final int CLIENT_HOST_NAME = 1 << 4;
+    private static final int SERVER_HOST_NAME = 1 << 5;
+    private static final int COMM_PROTOCOL = 1 << 6;
+    private static final int DB_PROTOCOL = 1 << 7;
+    private static final int DB_PROTOCOL_VERSION = 1 << 8;
+    private static final int OS_USER = 1 << 9;
+    private static final int SOURCE_PROGRAM = 1 << 10;
+    private static final int CLIENT_MAC = 1 << 11;
+    private static final int SERVER_DESCRIPTION = 1 << 12;
+    private static final int SERVICE_NAME = 1 << 13;
+    private static final int LANGUAGE = 1 << 14;
+    private static final int DATA_TYPE = 1 << 15;
+
+    private final transient LazyRecord record;
+    private final transient CustomParser parser;
+    // the fields that were extracted or set
+    private transient int loaded;
+
+    LazyAccessor(LazyRecord record) {
+        this.record = record;
+        this.parser = record.getParser();
+    }
+
+    /**
+     * Extracts all the fields that were not read yet.
+     */
+    void materialize() {
+        getDbUser();
+        getServerType();
+        getServerOs();
+        getClientOs();
+        getClientHostName();
+        getServerHostName();
+        getCommProtocol();
+        getDbProtocol();
+        getDbProtocolVersion();
+        getOsUser();
+        getSourceProgram();
+        getClient_mac();
+        getServerDescription();
+        getServiceName();
+        getLanguage();
+        getDataType();
+    }
+
+    private boolean isLoaded(int field) {
+        return (loaded & field) != 0;
+    }
+
+    @Override
+    public String getDbUser() {
+        if (!isLoaded(DB_USER)) {
+            setDbUser(record.extract(parser::getDbUser));
+        }
+        return super.getDbUser();
+    }
+
+    @Override
+    public void setDbUser(String dbUser) {
+        loaded |= DB_USER;
+        super.setDbUser(dbUser);
+    }
+
+    @Override
+    public String getServerType() {
+        if (!isLoaded(SERVER_TYPE)) {
+            setServerType(record.extract(parser::getServerType));
+        }
+        return super.getServerType();
+    }
+
+    @Override
+    public void setServerType(String serverType) {
+        loaded |= SERVER_TYPE;
+        super.setServerType(serverType);
+    }
+
+    @Override
+    public String getServerOs() {
+        if (!isLoaded(SERVER_OS)) {
+            setServerOs(record.extract(parser::getServerOs));
+        }
+        return super.getServerOs();
+    }
+
+    @Override
+    public void setServerOs(String serverOs) {
+        loaded |= SERVER_OS;
+        super.setServerOs(serverOs);
+    }
+
+    @Override
+    public String getClientOs() {
+        if (!isLoaded(CLIENT_OS)) {
+            setClientOs(record.extract(parser::getClientOs));
+        }
+        return super.getClientOs();
+    }
+
+    @Override
+    public void setClientOs(String clientOs) {
+        loaded |= CLIENT_OS;
+        super.setClientOs(clientOs);
+    }
+
+    @Override
+    public String getClientHostName() {
+        if (!isLoaded(CLIENT_HOST_NAME)) {
+            setClientHostName(record.extract(parser::getClientHostName));
+        }
+        return super.getClientHostName();
+    }
+
+    @Override
+    public void setClientHostName(String clientHostName) {
+        loaded |= CLIENT_HOST_NAME;
+        super.setClientHostName(clientHostName);
+    }
+
+    @Override
+    public String getServerHostName() {
+        if (!isLoaded(SERVER_HOST_NAME)) {
+            setServerHostName(record.extract(parser::getServerHostName));
+        }
+        return super.getServerHostName();
+    }
+
+    @Override
+    public void setServerHostName(String serverHostName) {
+        loaded |= SERVER_HOST_NAME;
+        super.setServerHostName(serverHostName);
+    }
+
+    @Override
+    public String getCommProtocol() {
+        if (!isLoaded(COMM_PROTOCOL)) {
+            setCommProtocol(record.extract(parser::getCommProtocol));
+        }
+        return super.getCommProtocol();
+    }
+
+    @Override
+    public void setCommProtocol(String commProtocol) {
+        loaded |= COMM_PROTOCOL;
+        super.setCommProtocol(commProtocol);
+    }
+
+    @Override
+    public String getDbProtocol() {
+        if (!isLoaded(DB_PROTOCOL)) {
+            setDbProtocol(record.extract(parser::getDbProtocol));
+        }
+        return super.getDbProtocol();
+    }
+
+    @Override
+    public void setDbProtocol(String dbProtocol) {
+        loaded |= DB_PROTOCOL;
+        super.setDbProtocol(dbProtocol);
+    }
+
+    @Override
+    public String getDbProtocolVersion() {
+        if (!isLoaded(DB_PROTOCOL_VERSION)) {
+            setDbProtocolVersion(record.extract(parser::getDbProtocolVersion));
+        }
+        return super.getDbProtocolVersion();
+    }
+
+    @Override
+    public void setDbProtocolVersion(String dbProtocolVersion) {
+        loaded |= DB_PROTOCOL_VERSION;
+        super.setDbProtocolVersion(dbProtocolVersion);
+    }
+
+    @Override
+    public String getOsUser() {
+        if (!isLoaded(OS_USER)) {
+            setOsUser(record.extract(parser::getOsUser));
+        }
+        return super.getOsUser();
+    }
+
+    @Override
+    public void setOsUser(String osUser) {
+        loaded |= OS_USER;
+        super.setOsUser(osUser);
+    }
+
+    @Override
+    public String getSourceProgram() {
+        if (!isLoaded(SOURCE_PROGRAM)) {
+            setSourceProgram(record.extract(parser::getSourceProgram));
+        }
+        return super.getSourceProgram();
+    }
+
+    @Override
+    public void setSourceProgram(String sourceProgram) {
+        loaded |= SOURCE_PROGRAM;
+        super.setSourceProgram(sourceProgram);
+    }
+
+    @Override
+    public String getClient_mac() {
+        if (!isLoaded(CLIENT_MAC)) {
+            setClient_mac(record.extract(parser::getClientMac));
+        }
+        return super.getClient_mac();
+    }
+
+    @Override
+    public void setClient_mac(String client_mac) {
+        loaded |= CLIENT_MAC;
+        super.setClient_mac(client_mac);
+    }
+
+    @Override
+    public String getServerDescription() {
+        if (!isLoaded(SERVER_DESCRIPTION)) {
+            setServerDescription(record.extract(parser::getServerDescription));
+        }
+        return super.getServerDescription();
+    }
+
+    @Override
+    public void setServerDescription(String serverDescription) {
+        loaded |= SERVER_DESCRIPTION;
+        super.setServerDescription(serverDescription);
+    }
+
+    @Override
+    public String getServiceName() {
+        if (!isLoaded(SERVICE_NAME)) {
+            setServiceName(record.extract(parser::getServiceName));
+        }
+        return super.getServiceName();
+    }
+
+    @Override
+    public void setServiceName(String serviceName) {
+        loaded |= SERVICE_NAME;
+        super.setServiceName(serviceName);
+    }
+
+    @Override
+    public String getLanguage() {
+        if (!isLoaded(LANGUAGE)) {
+            setLanguage(record.extract(parser::getLanguage));
+        }
+        return super.getLanguage();
+    }
+
+    @Override
+    public void setLanguage(String language) {
+        loaded |= LANGUAGE;
+        super.setLanguage(language);
+    }
+
+    @Override
+    public String getDataType() {
+        if (!isLoaded(DATA_TYPE)) {
+            setDataType(record.extract(parser::getDataType));
+        }
+        return super.getDataType();
+    }
+
+    @Override
+    public void setDataType(String dataType) {
+        loaded |= DATA_TYPE;
+        super.setDataType(dataType);
+    }
+}
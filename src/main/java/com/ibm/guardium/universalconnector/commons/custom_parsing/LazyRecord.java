@@ -0,0 +1,269 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.*;
+
+import java.util.function.Function;
+
+/**
+ * A Record whose fields are extracted from the payload when they are first read, see
+ * {@link CustomParser#parseLazyRecord(String)}. Each field is extracted once, with the getter of the parser
+ * that {@link CustomParser#parseRecord(String)} would call, and a field that is set is not extracted. The
+ * Accessor is lazy field by field, unless the parser builds it itself.
+ * <p>
+ * Serializers read the fields of a Record directly, so {@link #materialize()} must be called before a lazy
+ * record is serialized. The time budget of the record only counts the time spent extracting its fields.
+ * Like a Record, a LazyRecord must not be read by several threads at once.
+ */
+public final class LazyRecord extends Record {
+    private static final int SESSION_ID = 1;
+    private static final int DB_NAME = 1 << 1;
+    private static final int APP_USER_NAME = 1 << 2;
+    private static final int EXCEPTION = 1 << 3;
+    private static final int ACCESSOR = 1 << 4;
+    private static final int SESSION_LOCATOR = 1 << 5;
+    private static final int TIME = 1 << 6;
+    private static final int DATA = 1 << 7;
+
+    private final transient CustomParser parser;
+    private final transient ExtractionContext context;
+    // the fields that were extracted or set
+    private transient int loaded;
+    private transient String sqlString;
+
+    LazyRecord(CustomParser parser, ExtractionContext context) {
+        this.parser = parser;
+        this.context = context;
+    }
+
+    /**
+     * Extracts all the fields that were not read yet.
+     *
+     * @return This record.
+     */
+    public LazyRecord materialize() {
+        getSessionId();
+        getDbName();
+        getAppUserName();
+        getException();
+        Accessor accessor = getAccessor();
+        if (accessor instanceof LazyAccessor) {
+            ((LazyAccessor) accessor).materialize();
+        }
+        getSessionLocator();
+        getTime();
+        getData();
+        return this;
+    }
+
+    CustomParser getParser() {
+        return parser;
+    }
+
+    String getPayload() {
+        return context.payload;
+    }
+
+    /**
+     * Reads the value this record holds for a field, as a {@link FilterRule} compares it: with the getter
+     * that sets the field, or as extracted if the record holds no such String.
+     *
+     * @param field The field, or null if it is a custom field.
+     * @param key   The key of the field.
+     */
+    String getFieldValue(PropertyField field, String key) {
+        if (field == null) {
+            return extract(payload -> parser.getValue(payload, key));
+        }
+        switch (field) {
+            case SESSION_ID:
+                return getSessionId();
+            case DB_NAME:
+                return getDbName();
+            case APP_USER_NAME:
+                return getAppUserName();
+            case SQL_STRING:
+                return getSqlString();
+            case EXCEPTION_TYPE_ID:
+                return isException() ? getException().getExceptionTypeId() : PropertyConstant.DEFAULT_STRING;
+            case DB_USER:
+                return getAccessor().getDbUser();
+            case SERVER_TYPE:
+                return getAccessor().getServerType();
+            case SERVER_OS:
+                return getAccessor().getServerOs();
+            case CLIENT_OS:
+                return getAccessor().getClientOs();
+            case CLIENT_HOSTNAME:
+                return getAccessor().getClientHostName();
+            case SERVER_HOSTNAME:
+                return getAccessor().getServerHostName();
+            case COMM_PROTOCOL:
+                return getAccessor().getCommProtocol();
+            case DB_PROTOCOL:
+                return getAccessor().getDbProtocol();
+            case DB_PROTOCOL_VERSION:
+                return getAccessor().getDbProtocolVersion();
+            case OS_USER:
+                return getAccessor().getOsUser();
+            case SOURCE_PROGRAM:
+                return getAccessor().getSourceProgram();
+            case CLIENT_MAC:
+                return getAccessor().getClient_mac();
+            case SERVER_DESCRIPTION:
+                return getAccessor().getServerDescription();
+            case SERVICE_NAME:
+                return getAccessor().getServiceName();
+            case CLIENT_IP:
+                return getSessionLocator().getClientIp();
+            case CLIENT_IPV6:
+                return getSessionLocator().getClientIpv6();
+            case SERVER_IP:
+                return getSessionLocator().getServerIp();
+            case SERVER_IPV6:
+                return getSessionLocator().getServerIpv6();
+            case IS_IPV6:
+                return String.valueOf(getSessionLocator().isIpv6());
+            case CLIENT_PORT:
+                return String.valueOf(getSessionLocator().getClientPort());
+            case SERVER_PORT:
+                return String.valueOf(getSessionLocator().getServerPort());
+            default:
+                return extract(payload -> parser.getValue(payload, field));
+        }
+    }
+
+    <T> T extract(Function<String, T> getter) {
+        return parser.extractInContext(context, () -> getter.apply(context.payload));
+    }
+
+    private boolean isLoaded(int field) {
+        return (loaded & field) != 0;
+    }
+
+    private String getSqlString() {
+        if (sqlString == null) {
+            sqlString = extract(parser::getSqlString);
+        }
+        return sqlString;
+    }
+
+    @Override
+    public String getSessionId() {
+        if (!isLoaded(SESSION_ID)) {
+            setSessionId(extract(parser::getSessionId));
+        }
+        return super.getSessionId();
+    }
+
+    @Override
+    public void setSessionId(String sessionId) {
+        loaded |= SESSION_ID;
+        super.setSessionId(sessionId);
+    }
+
+    @Override
+    public String getDbName() {
+        if (!isLoaded(DB_NAME)) {
+            setDbName(extract(parser::getDbName));
+        }
+        return super.getDbName();
+    }
+
+    @Override
+    public void setDbName(String dbName) {
+        loaded |= DB_NAME;
+        super.setDbName(dbName);
+    }
+
+    @Override
+    public String getAppUserName() {
+        if (!isLoaded(APP_USER_NAME)) {
+            setAppUserName(extract(parser::getAppUserName));
+        }
+        return super.getAppUserName();
+    }
+
+    @Override
+    public void setAppUserName(String appUserName) {
+        loaded |= APP_USER_NAME;
+        super.setAppUserName(appUserName);
+    }
+
+    @Override
+    public boolean isException() {
+        return getException() != null;
+    }
+
+    @Override
+    public ExceptionRecord getException() {
+        if (!isLoaded(EXCEPTION)) {
+            setException(extract(payload -> parser.getException(payload, getSqlString())));
+        }
+        return super.getException();
+    }
+
+    @Override
+    public void setException(ExceptionRecord exception) {
+        loaded |= EXCEPTION;
+        super.setException(exception);
+    }
+
+    @Override
+    public Accessor getAccessor() {
+        if (!isLoaded(ACCESSOR)) {
+            setAccessor(parser.isAccessorOverridden() ? extract(parser::getAccessor) : new LazyAccessor(this));
+        }
+        return super.getAccessor();
+    }
+
+    @Override
+    public void setAccessor(Accessor accessor) {
+        loaded |= ACCESSOR;
+        super.setAccessor(accessor);
+    }
+
+    @Override
+    public SessionLocator getSessionLocator() {
+        if (!isLoaded(SESSION_LOCATOR)) {
+            setSessionLocator(extract(payload -> parser.getSessionLocator(payload, getSessionId())));
+        }
+        return super.getSessionLocator();
+    }
+
+    @Override
+    public void setSessionLocator(SessionLocator sessionLocator) {
+        loaded |= SESSION_LOCATOR;
+        super.setSessionLocator(sessionLocator);
+    }
+
+    @Override
+    public Time getTime() {
+        if (!isLoaded(TIME)) {
+            setTime(extract(parser::getTimestamp));
+        }
+        return super.getTime();
+    }
+
+    @Override
+    public void setTime(Time time) {
+        loaded |= TIME;
+        super.setTime(time);
+    }
+
+    /**
+     * Like {@link CustomParser#parseRecord(String)}, only extracts the data of records that are exceptions.
+     */
+    @Override
+    public Data getData() {
+        if (!isLoaded(DATA)) {
+            setData(isException() ? extract(payload -> parser.getData(payload, getSqlString())) : null);
+        }
+        return super.getData();
+    }
+
+    @Override
+    public void setData(Data data) {
+        loaded |= DATA;
+        super.setData(data);
+    }
+}
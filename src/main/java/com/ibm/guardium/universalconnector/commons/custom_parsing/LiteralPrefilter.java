@@ -0,0 +1,92 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.AhoCorasick;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tells which fields can possibly be present in a payload. The required literals of all configured fields
+ * are searched in a single pass, and a field whose literals are not all found is skipped without running
+ * its expression. Events usually lack most of the configured fields, so this saves most regex scans.
+ */
+final class LiteralPrefilter {
+    private final AhoCorasick automaton;
+    // the ids of the literals required by each slot; null if the slot requires none
+    private final int[][] literalsBySlot;
+    private final LongAdder skipCount = new LongAdder();
+
+    private LiteralPrefilter(AhoCorasick automaton, int[][] literalsBySlot) {
+        this.automaton = automaton;
+        this.literalsBySlot = literalsBySlot;
+    }
+
+    /**
+     * @param literalsBySlot The required literals of each slot; null or empty if the slot requires none.
+     * @return The prefilter, or null if no slot requires a literal.
+     */
+    static LiteralPrefilter build(List<List<String>> literalsBySlot) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> literals = new ArrayList<>();
+        int[][] idsBySlot = new int[literalsBySlot.size()][];
+        for (int slot = 0; slot < literalsBySlot.size(); slot++) {
+            List<String> required = literalsBySlot.get(slot);
+            if (required == null || required.isEmpty()) {
+                continue;
+            }
+            idsBySlot[slot] = new int[required.size()];
+            for (int i = 0; i < required.size(); i++) {
+                String literal = required.get(i);
+                Integer id = ids.get(literal);
+                if (id == null) {
+                    id = literals.size();
+                    ids.put(literal, id);
+                    literals.add(literal);
+                }
+                idsBySlot[slot][i] = id;
+            }
+        }
+        return literals.isEmpty() ? null : new LiteralPrefilter(new AhoCorasick(literals), idsBySlot);
+    }
+
+    boolean hasLiterals(int slot) {
+        return literalsBySlot[slot] != null;
+    }
+
+    /**
+     * @return The literals found in the payload, to be passed to {@link #mayMatch(int, boolean[])}.
+     */
+    boolean[] search(String payload) {
+        boolean[] found = new boolean[automaton.getLiteralCount()];
+        automaton.search(payload, found);
+        return found;
+    }
+
+    /**
+     * @param slot  A slot of the plan.
+     * @param found The literals found in the payload.
+     * @return False if the field certainly cannot be extracted from the payload.
+     */
+    boolean mayMatch(int slot, boolean[] found) {
+        int[] required = literalsBySlot[slot];
+        if (required != null) {
+            for (int id : required) {
+                if (!found[id]) {
+                    skipCount.increment();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of field extractions skipped because a required literal was missing.
+     */
+    long getSkipCount() {
+        return skipCount.sum();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Record;
+
+/**
+ * The outcome of parsing one payload of a batch, see {@link CustomParser#parseRecords(java.util.List)}. A
+ * payload that failed with an exception does not abort the batch; the exception is reported here instead.
+ */
+public final class ParseResult {
+    private final String payload;
+    private final Record record;
+    private final RuntimeException error;
+
+    private ParseResult(String payload, Record record, RuntimeException error) {
+        this.payload = payload;
+        this.record = record;
+        this.error = error;
+    }
+
+    static ParseResult success(String payload, Record record) {
+        return new ParseResult(payload, record, null);
+    }
+
+    static ParseResult failure(String payload, RuntimeException error) {
+        return new ParseResult(payload, null, error);
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * @return The Record; null if parsing failed, or if the payload or the config is invalid or the event was
+     * dropped, as for {@link CustomParser#parseRecord(String)}.
+     */
+    public Record getRecord() {
+        return record;
+    }
+
+    /**
+     * @return The exception parsing failed with, or null if it did not fail.
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    public boolean isFailure() {
+        return error != null;
+    }
+}
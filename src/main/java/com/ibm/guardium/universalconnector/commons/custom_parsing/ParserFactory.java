@@ -1,7 +1,10 @@
 package com.ibm.guardium.universalconnector.commons.custom_parsing;
 
 import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.JsonPointerParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.LinearRegexParser;
 import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.RegexParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.XmlPathParser;
 
 public class ParserFactory {
     IParser parser;
@@ -10,14 +13,22 @@ public class ParserFactory {
     }
 
     public IParser getParser(ParserType parserType) {
-        //For now we only support Regex
-        //if(parserType.equals(ParserType.regex))
+        if (parserType == ParserType.json) {
+            return new JsonPointerParser();
+        }
+        if (parserType == ParserType.xml) {
+            return new XmlPathParser();
+        }
+        if (parserType == ParserType.linear_regex) {
+            return new LinearRegexParser();
+        }
         return new RegexParser();
     }
 
     public enum ParserType {
         regex,
         json,
-        xml
+        xml,
+        linear_regex
     }
 }
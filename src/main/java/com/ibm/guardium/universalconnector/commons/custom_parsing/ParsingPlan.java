@@ -0,0 +1,768 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IFieldExtractor;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IMultiFieldExtractor;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.IntValues;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.NamedGroupExtractor;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.RegexParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.PropertyConstant.*;
+
+/**
+ * A connector config compiled for extraction. The config is validated once, and every configured field is
+ * resolved to an {@link IFieldExtractor} stored in an array slot: the ordinal of its {@link PropertyField},
+ * or a slot after those for keys that only a {@link CustomParser} subclass knows about.
+ * <p>
+ * Fields may also be filled in a single pass by the named groups of the {@link PropertyConstant#MULTI_FIELD_REGEX}
+ * regexes; their own expression, if any, is then only used when the named groups did not capture them.
+ * <p>
+ * Parsers of structured payloads, such as JSON, extract all the configured fields together in a single pass
+ * over the payload, see {@link IParser#compileAll(String[])}.
+ * <p>
+ * The literals that the expression of each field requires are searched in the payload in a single pass
+ * before the first field is extracted, and fields whose literals are missing are not extracted at all.
+ * <p>
+ * The field extractions of a record may share a time budget, {@link PropertyConstant#RECORD_TIMEOUT_MICROS}:
+ * fields requested after it has run out are left to their defaults, which bounds the time an adversarial
+ * payload can take whatever the number of fields.
+ * <p>
+ * The worst-case extraction time of every field is estimated when the plan is compiled, see
+ * {@link IParser#worstCaseDegree(String)}. Fields that are not linear are reported, and fields above
+ * {@link PropertyConstant#MAX_REGEX_DEGREE}, if set, are not extracted, nor are fields whose time cannot be
+ * estimated.
+ * <p>
+ * Fields listed in {@link PropertyConstant#FIELD_ORDER} appear in payloads in that order, so each is searched
+ * from where the previous one ended rather than from the start of the payload; a field that is not found
+ * there is searched in the whole payload.
+ * <p>
+ * Payloads that wrap a large body in an envelope may declare {@link PropertyConstant#REGIONS}, located once per
+ * record by a regex of their own, and bind fields to them with {@link PropertyConstant#FIELD_REGIONS}: such a
+ * field is then matched in its region only, as if the region were the whole payload.
+ * <p>
+ * Fields may be declared in {@link PropertyConstant#CONSTANT_FIELDS}, when every event has the same value, or in
+ * {@link PropertyConstant#DERIVED_FIELDS}, when their value is built from other fields by a {@link FieldTemplate}.
+ * Such fields are not matched against payloads, and their expression, if any, is ignored.
+ * <p>
+ * The {@link FilterRule}s of {@link PropertyConstant#FILTER_RULES} keep or drop events from the raw payload and
+ * the few fields they test, before the rest of the Record is extracted.
+ * <p>
+ * A plan is immutable, so a single parser instance can use it from any number of threads without locking.
+ * A new plan is compiled whenever the config file changes.
+ */
+public final class ParsingPlan {
+    private static final Logger logger = LogManager.getLogger(ParsingPlan.class);
+
+    // config keys that hold settings rather than the expression of a field
+    private static final Set<String> SETTINGS = new HashSet<>(Arrays.asList(
+            SNIFFER_PARSER, PARSING_TYPE, SQL_PARSING_ACTIVE, MULTI_FIELD_REGEX, TIMESTAMP_FORMATS, TIMESTAMP_ZONE,
+            RECORD_TIMEOUT_MICROS, MAX_REGEX_DEGREE, FIELD_ORDER,
+            REGIONS, FIELD_REGIONS, CONSTANT_FIELDS, DERIVED_FIELDS, FILTER_RULES));
+
+    private final Map<String, String> properties;
+    private final SqlParser.ValidityCase validity;
+    private final boolean hasSqlParsing;
+    private final boolean parseUsingSniffer;
+    private final String snifferParser;
+    private final TimestampFormats timestampFormats;
+    private final long recordTimeoutNanos;
+    private final Map<String, Integer> slots;
+    private final IFieldExtractor[] extractors;
+    private final Map<String, Integer> worstCaseDegrees;
+    private final IMultiFieldExtractor multiFieldExtractor;
+    private final boolean[] multiFieldSlots;
+    private final LiteralPrefilter prefilter;
+    private final IMultiFieldExtractor batchExtractor;
+    private final boolean[] batchSlots;
+    // the slots of field_order, and the position in it of each slot or -1
+    private final int[] orderedSlots;
+    private final int[] orderPositions;
+    // the extractors of the bounds of each region, and the region of each slot or -1
+    private final IFieldExtractor[] regionExtractors;
+    private final int[] fieldRegions;
+    // the value of each constant field and the template of each derived field, by slot; null for other fields
+    private final String[] constants;
+    private final FieldTemplate[] templates;
+    private final List<FilterRule> filterRules;
+    private final boolean fieldConditions;
+
+    private ParsingPlan(Map<String, String> properties, SqlParser.ValidityCase validity, Map<String, Integer> slots,
+                        IFieldExtractor[] extractors, LiteralPrefilter prefilter, IMultiFieldExtractor batchExtractor,
+                        boolean[] batchSlots, IMultiFieldExtractor multiFieldExtractor, int[] multiFieldSlots,
+                        Map<String, Integer> worstCaseDegrees, int[] orderedSlots,
+                        IFieldExtractor[] regionExtractors, int[] fieldRegions, String[] constants,
+                        FieldTemplate[] templates, List<FilterRule> filterRules) {
+        this.properties = properties;
+        this.validity = validity;
+        this.slots = slots;
+        this.extractors = extractors;
+        this.worstCaseDegrees = worstCaseDegrees;
+        this.prefilter = prefilter;
+        this.batchExtractor = batchExtractor;
+        this.batchSlots = batchSlots;
+        this.multiFieldExtractor = multiFieldExtractor;
+        this.multiFieldSlots = new boolean[extractors.length];
+        for (int slot : multiFieldSlots) {
+            this.multiFieldSlots[slot] = true;
+        }
+        this.constants = constants;
+        this.filterRules = filterRules;
+        this.fieldConditions = filterRules.stream().anyMatch(FilterRule::hasFieldCondition);
+        this.templates = templates;
+        this.regionExtractors = regionExtractors;
+        this.fieldRegions = fieldRegions;
+        this.orderedSlots = orderedSlots;
+        this.orderPositions = new int[extractors.length];
+        Arrays.fill(orderPositions, -1);
+        for (int position = 0; position < orderedSlots.length; position++) {
+            orderPositions[orderedSlots[position]] = position;
+        }
+
+        hasSqlParsing = SqlParser.hasSqlParsing(properties);
+        String parsingType = properties.get(PARSING_TYPE);
+        parseUsingSniffer = hasSqlParsing && parsingType != null && SqlParser.isSnifferParsing(parsingType);
+        snifferParser = properties.get(SNIFFER_PARSER);
+        timestampFormats = compileTimestampFormats(properties);
+        recordTimeoutNanos = compileRecordTimeout(properties);
+    }
+
+    /**
+     * Validates the properties loaded from a config file and compiles their fields.
+     *
+     * @param properties The properties, as loaded by {@link CustomParser#getProperties()}.
+     * @param parser     The parser that extracts the fields.
+     * @return The compiled plan, or null if properties is null.
+     */
+    public static ParsingPlan compile(Map<String, String> properties, IParser parser) {
+        if (properties == null) {
+            return null;
+        }
+        Map<String, String> unmodifiable = Collections.unmodifiableMap(new HashMap<>(properties));
+        SqlParser.ValidityCase validity = SqlParser.isValid(unmodifiable);
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (PropertyField field : PropertyField.values()) {
+            slots.put(field.getKey(), field.ordinal());
+        }
+        // properties is deserialized from JSON without type checks, so values are not necessarily Strings
+        Map<String, ?> values = unmodifiable;
+        SortedSet<String> customKeys = new TreeSet<>();
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (!slots.containsKey(entry.getKey()) && !SETTINGS.contains(entry.getKey()) && entry.getValue() instanceof String) {
+                customKeys.add(entry.getKey());
+            }
+        }
+        for (String key : customKeys) {
+            slots.put(key, slots.size());
+        }
+
+        String[] constants = compileConstants(values.get(CONSTANT_FIELDS), slots);
+        FieldTemplate[] templates = compileTemplates(values.get(DERIVED_FIELDS), slots, constants);
+
+        IFieldExtractor[] extractors = new IFieldExtractor[slots.size()];
+        String[] keys = new String[slots.size()];
+        List<List<String>> literals = new ArrayList<>(Collections.nCopies(slots.size(), null));
+        int maxDegree = compileMaxDegree(values);
+        Map<String, Integer> worstCaseDegrees = new HashMap<>();
+        for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+            Object expression = values.get(slot.getKey());
+            if (constants[slot.getValue()] != null || templates[slot.getValue()] != null) {
+                if (expression instanceof String) {
+                    logger.warn("The expression of field {} is ignored, the field is declared in {} or {}",
+                            slot.getKey(), CONSTANT_FIELDS, DERIVED_FIELDS);
+                }
+            } else if (expression instanceof String) {
+                int degree = parser.worstCaseDegree((String) expression);
+                worstCaseDegrees.put(slot.getKey(), degree);
+                if (!isAffordable(slot.getKey(), degree, maxDegree)) {
+                    continue;
+                }
+                extractors[slot.getValue()] = compileField(parser, slot.getKey(), (String) expression);
+                if (extractors[slot.getValue()] != null) {
+                    keys[slot.getValue()] = (String) expression;
+                    literals.set(slot.getValue(), parser.requiredLiterals((String) expression));
+                }
+            }
+        }
+        LiteralPrefilter prefilter = LiteralPrefilter.build(literals);
+
+        IMultiFieldExtractor batchExtractor = compileBatch(parser, keys);
+        boolean[] batchSlots = new boolean[slots.size()];
+        for (int slot = 0; slot < keys.length; slot++) {
+            batchSlots[slot] = batchExtractor != null && keys[slot] != null;
+        }
+
+        NamedGroupExtractor multiFieldExtractor = compileMultiField(values.get(MULTI_FIELD_REGEX), slots);
+        int[] multiFieldSlots = multiFieldExtractor != null ? multiFieldExtractor.getSlots() : new int[0];
+
+        Map<String, Integer> regionIndexes = new HashMap<>();
+        IFieldExtractor[] regionExtractors = compileRegions(values.get(REGIONS), regionIndexes);
+        int[] fieldRegions = compileFieldRegions(values.get(FIELD_REGIONS), slots, regionIndexes, batchSlots);
+        int[] orderedSlots = compileFieldOrder(values.get(FIELD_ORDER), slots, extractors, batchSlots, fieldRegions);
+
+        return new ParsingPlan(unmodifiable, validity, Collections.unmodifiableMap(slots), extractors, prefilter,
+                batchExtractor, batchSlots, multiFieldExtractor, multiFieldSlots, Collections.unmodifiableMap(worstCaseDegrees),
+                orderedSlots, regionExtractors, fieldRegions, constants, templates,
+                compileFilterRules(values.get(FILTER_RULES), slots));
+    }
+
+    private static List<FilterRule> compileFilterRules(Object rules, Map<String, Integer> slots) {
+        if (rules == null) {
+            return Collections.emptyList();
+        }
+        if (!(rules instanceof List)) {
+            logger.error("The {} setting should be a list of rules, ignoring {}", FILTER_RULES, rules);
+            return Collections.emptyList();
+        }
+        List<FilterRule> filterRules = new ArrayList<>();
+        List<?> list = (List<?>) rules;
+        for (int position = 0; position < list.size(); position++) {
+            try {
+                filterRules.add(FilterRule.compile(position, list.get(position), slots));
+            } catch (IllegalArgumentException e) {
+                logger.error("The rule at position " + position + " of the " + FILTER_RULES + " setting is invalid, ignoring it.", e);
+            }
+        }
+        return Collections.unmodifiableList(filterRules);
+    }
+
+    private static String[] compileConstants(Object declarations, Map<String, Integer> slots) {
+        String[] constants = new String[slots.size()];
+        for (Map.Entry<?, ?> declaration : declarationMap(CONSTANT_FIELDS, declarations).entrySet()) {
+            Integer slot = slots.get(declaration.getKey().toString());
+            if (slot == null || declaration.getValue() == null) {
+                logger.error("The {} setting declares {} as {}, which is not a field and a value; ignoring it",
+                        CONSTANT_FIELDS, declaration.getKey(), declaration.getValue());
+            } else {
+                // a number in the JSON config, e.g. of a port
+                constants[slot] = declaration.getValue().toString();
+            }
+        }
+        return constants;
+    }
+
+    private static FieldTemplate[] compileTemplates(Object declarations, Map<String, Integer> slots, String[] constants) {
+        FieldTemplate[] templates = new FieldTemplate[slots.size()];
+        for (Map.Entry<?, ?> declaration : declarationMap(DERIVED_FIELDS, declarations).entrySet()) {
+            Integer slot = slots.get(declaration.getKey().toString());
+            if (slot == null || !(declaration.getValue() instanceof String)) {
+                logger.error("The {} setting declares {} as {}, which is not a field and a template; ignoring it",
+                        DERIVED_FIELDS, declaration.getKey(), declaration.getValue());
+            } else if (constants[slot] != null) {
+                logger.error("The {} setting declares {}, which is already a constant field; ignoring it",
+                        DERIVED_FIELDS, declaration.getKey());
+            } else {
+                try {
+                    templates[slot] = FieldTemplate.compile((String) declaration.getValue(), slots);
+                } catch (IllegalArgumentException e) {
+                    logger.error("The template of field " + declaration.getKey() + " is invalid, ignoring it.", e);
+                }
+            }
+        }
+        // templates reference extracted or constant fields only, so that resolving them cannot loop
+        FieldTemplate[] compiled = templates.clone();
+        for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+            FieldTemplate template = compiled[slot.getValue()];
+            if (template != null && Arrays.stream(template.getSlots()).anyMatch(reference -> compiled[reference] != null)) {
+                logger.error("The template of field {} references a derived field, ignoring it", slot.getKey());
+                templates[slot.getValue()] = null;
+            }
+        }
+        return templates;
+    }
+
+    private static Map<?, ?> declarationMap(String key, Object declarations) {
+        if (declarations == null) {
+            return Collections.emptyMap();
+        }
+        if (!(declarations instanceof Map)) {
+            logger.error("The {} setting should map fields to values, ignoring {}", key, declarations);
+            return Collections.emptyMap();
+        }
+        return (Map<?, ?>) declarations;
+    }
+
+    // the region of a payload is the first group of its regex, or the whole match if it has no group
+    private static IFieldExtractor[] compileRegions(Object regions, Map<String, Integer> regionIndexes) {
+        if (regions == null) {
+            return new IFieldExtractor[0];
+        }
+        if (!(regions instanceof Map)) {
+            logger.error("The {} setting should map region names to regexes, ignoring {}", REGIONS, regions);
+            return new IFieldExtractor[0];
+        }
+        RegexParser regexParser = new RegexParser();
+        List<IFieldExtractor> extractors = new ArrayList<>();
+        for (Map.Entry<?, ?> region : ((Map<?, ?>) regions).entrySet()) {
+            if (!(region.getValue() instanceof String)) {
+                logger.error("The regex of region {} should be a string, ignoring {}", region.getKey(), region.getValue());
+                continue;
+            }
+            try {
+                extractors.add(regexParser.compile((String) region.getValue()));
+                regionIndexes.put(region.getKey().toString(), extractors.size() - 1);
+            } catch (RuntimeException e) {
+                logger.error("The regex of region " + region.getKey() + " is invalid, its fields will be matched in the whole payload.", e);
+            }
+        }
+        return extractors.toArray(new IFieldExtractor[0]);
+    }
+
+    private static int[] compileFieldRegions(Object bindings, Map<String, Integer> slots, Map<String, Integer> regionIndexes,
+                                             boolean[] batchSlots) {
+        int[] fieldRegions = new int[slots.size()];
+        Arrays.fill(fieldRegions, -1);
+        if (bindings == null) {
+            return fieldRegions;
+        }
+        if (!(bindings instanceof Map)) {
+            logger.error("The {} setting should map fields to region names, ignoring {}", FIELD_REGIONS, bindings);
+            return fieldRegions;
+        }
+        for (Map.Entry<?, ?> binding : ((Map<?, ?>) bindings).entrySet()) {
+            Integer slot = slots.get(binding.getKey().toString());
+            Integer region = binding.getValue() != null ? regionIndexes.get(binding.getValue().toString()) : null;
+            if (slot == null || region == null) {
+                logger.error("The {} setting binds {} to {}, which is not a field and a region; ignoring it",
+                        FIELD_REGIONS, binding.getKey(), binding.getValue());
+            } else if (!batchSlots[slot]) {
+                // batched fields are extracted from the whole payload in a single pass
+                fieldRegions[slot] = region;
+            }
+        }
+        return fieldRegions;
+    }
+
+    private static int[] compileFieldOrder(Object keys, Map<String, Integer> slots, IFieldExtractor[] extractors,
+                                           boolean[] batchSlots, int[] fieldRegions) {
+        List<String> list = stringList(FIELD_ORDER, keys);
+        int[] orderedSlots = new int[list.size()];
+        boolean[] listed = new boolean[extractors.length];
+        int count = 0;
+        for (String key : list) {
+            Integer slot = slots.get(key);
+            if (slot == null || extractors[slot] == null) {
+                logger.error("The {} setting lists {}, which is not a configured field; ignoring it", FIELD_ORDER, key);
+            } else if (!listed[slot] && !batchSlots[slot] && fieldRegions[slot] < 0) {
+                // batched fields are extracted in a single pass anyway, and fields bound to a region are searched in it
+                listed[slot] = true;
+                orderedSlots[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(orderedSlots, count);
+    }
+
+    private static IMultiFieldExtractor compileBatch(IParser parser, String[] keys) {
+        try {
+            return parser.compileAll(keys);
+        } catch (RuntimeException e) {
+            // the fields were compiled one by one without error, so they can still be extracted that way
+            logger.error("The fields could not be compiled for extraction in a single pass, they will be extracted one at a time.", e);
+            return null;
+        }
+    }
+
+    private static NamedGroupExtractor compileMultiField(Object regexes, Map<String, Integer> slots) {
+        List<String> list = stringList(MULTI_FIELD_REGEX, regexes);
+        if (list.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> slotsByGroupName = new HashMap<>();
+        Map<String, String> keysByGroupName = new HashMap<>();
+        for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+            String groupName = NamedGroupExtractor.normalize(slot.getKey());
+            String other = keysByGroupName.putIfAbsent(groupName, slot.getKey());
+            if (other != null) {
+                // a group of that name could fill either field
+                logger.error("Fields {} and {} have the same group name {}, no group of the {} setting will fill them.",
+                        other, slot.getKey(), groupName, MULTI_FIELD_REGEX);
+                slotsByGroupName.put(groupName, -1);
+            } else {
+                slotsByGroupName.put(groupName, slot.getValue());
+            }
+        }
+        try {
+            return new NamedGroupExtractor(list, name -> slotsByGroupName.getOrDefault(NamedGroupExtractor.normalize(name), -1));
+        } catch (RuntimeException e) {
+            logger.error("The " + MULTI_FIELD_REGEX + " setting is invalid, it will be ignored.", e);
+            return null;
+        }
+    }
+
+    private static TimestampFormats compileTimestampFormats(Map<String, ?> values) {
+        List<String> formats = stringList(TIMESTAMP_FORMATS, values.get(TIMESTAMP_FORMATS));
+        if (formats.isEmpty()) {
+            return TimestampFormats.DEFAULT;
+        }
+        ZoneId zone = ZoneOffset.UTC;
+        Object zoneId = values.get(TIMESTAMP_ZONE);
+        if (zoneId != null) {
+            try {
+                zone = ZoneId.of(zoneId.toString());
+            } catch (DateTimeException e) {
+                logger.error("The " + TIMESTAMP_ZONE + " setting is invalid, UTC will be used.", e);
+            }
+        }
+        return TimestampFormats.compile(formats, zone);
+    }
+
+    private static long compileRecordTimeout(Map<String, ?> values) {
+        Object timeout = values.get(RECORD_TIMEOUT_MICROS);
+        if (timeout == null) {
+            return 0;
+        }
+        long micros = IntValues.parse(timeout.toString());
+        if (micros <= 0) {
+            logger.error("The {} setting should be a positive number of microseconds, ignoring {}", RECORD_TIMEOUT_MICROS, timeout);
+            return 0;
+        }
+        return micros * 1000;
+    }
+
+    /**
+     * Reads a setting that holds either a single String or a JSON array of them.
+     */
+    static List<String> stringList(String key, Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value instanceof String) {
+            return Collections.singletonList((String) value);
+        }
+        if (value instanceof List) {
+            List<String> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                if (element instanceof String) {
+                    list.add((String) element);
+                } else {
+                    logger.error("The {} setting should only contain strings, ignoring {}", key, element);
+                }
+            }
+            return list;
+        }
+        logger.error("The {} setting should be a string or a list of strings, ignoring {}", key, value);
+        return Collections.emptyList();
+    }
+
+    private static int compileMaxDegree(Map<String, ?> values) {
+        Object max = values.get(MAX_REGEX_DEGREE);
+        if (max == null) {
+            return 0;
+        }
+        long degree = IntValues.parse(max.toString());
+        if (degree <= 0) {
+            logger.error("The {} setting should be a positive integer, ignoring {}", MAX_REGEX_DEGREE, max);
+            return 0;
+        }
+        return (int) degree;
+    }
+
+    // reports a field whose extraction may not be linear, and rejects it if it exceeds the max degree or
+    // cannot be analyzed while a max degree is set
+    private static boolean isAffordable(String key, int degree, int maxDegree) {
+        if (degree == 1) {
+            return true;
+        }
+        String cost = RegexAnalyzer.describe(degree);
+        if (maxDegree > 0 && degree == RegexAnalyzer.UNKNOWN) {
+            logger.error("The expression of field {} cannot be analyzed, e.g. because it uses back-references or flags, so it may "
+                    + "take more time to match than {} allows; the field will not be extracted.", key, MAX_REGEX_DEGREE);
+            return false;
+        }
+        if (maxDegree > 0 && degree > maxDegree) {
+            logger.error("The expression of field {} may take {} time to match, more than {} allows; the field will not be extracted.",
+                    key, cost, MAX_REGEX_DEGREE);
+            return false;
+        }
+        logger.warn("The expression of field {} may take {} time to match on adversarial payloads.", key, cost);
+        return true;
+    }
+
+    private static IFieldExtractor compileField(IParser parser, String key, String expression) {
+        try {
+            return parser.compile(expression);
+        } catch (RuntimeException e) {
+            logger.error("The expression of field " + key + " is invalid, the field will not be extracted.", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The estimated worst-case extraction time of each field, see {@link IParser#worstCaseDegree(String)}.
+     * The map is unmodifiable.
+     */
+    public Map<String, Integer> getWorstCaseDegrees() {
+        return worstCaseDegrees;
+    }
+
+    /**
+     * @return The rules of {@link PropertyConstant#FILTER_RULES}, in order, with the number of events each
+     * decided on. The list is unmodifiable.
+     */
+    public List<FilterRule> getFilterRules() {
+        return filterRules;
+    }
+
+    /**
+     * @return Whether a filter rule reads a field of the Record, which must then be built lazily.
+     */
+    boolean hasFieldConditions() {
+        return fieldConditions;
+    }
+
+    /**
+     * @param record A record parsed with this plan.
+     * @return False if a filter rule drops the record.
+     */
+    boolean isKept(LazyRecord record) {
+        for (FilterRule rule : filterRules) {
+            if (rule.matches(record)) {
+                return rule.getAction() == FilterRule.Action.KEEP;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The properties the plan was compiled from. The map is unmodifiable.
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public SqlParser.ValidityCase getValidity() {
+        return validity;
+    }
+
+    public boolean hasSqlParsing() {
+        return hasSqlParsing;
+    }
+
+    public boolean isParseUsingSniffer() {
+        return parseUsingSniffer;
+    }
+
+    public String getSnifferParser() {
+        return snifferParser;
+    }
+
+    /**
+     * @return The time all the field extractions of a record may take, in nanoseconds, or 0 if it is
+     * unlimited. Fields requested after it has run out are not extracted.
+     */
+    public long getRecordTimeoutNanos() {
+        return recordTimeoutNanos;
+    }
+
+    /**
+     * @return The formats of the timestamp field.
+     */
+    public TimestampFormats getTimestampFormats() {
+        return timestampFormats;
+    }
+
+    /**
+     * @return The number of slots, i.e. of fields the plan can extract.
+     */
+    public int getSlotCount() {
+        return extractors.length;
+    }
+
+    /**
+     * @param key A config key.
+     * @return The slot of the key, or -1 if it is not a field.
+     */
+    public int getSlot(String key) {
+        Integer slot = slots.get(key);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return Whether a usable expression is configured for the slot.
+     */
+    public boolean isConfigured(int slot) {
+        return extractors[slot] != null || multiFieldSlots[slot] || constants[slot] != null || templates[slot] != null;
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return Whether the field may be filled by {@link #extractMultiField(String, String[])}.
+     */
+    public boolean isMultiField(int slot) {
+        return multiFieldSlots[slot];
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return Whether the field is extracted by {@link #extractBatch(String, String[])}.
+     */
+    public boolean isBatched(int slot) {
+        return batchSlots[slot];
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return The position of the field in {@link PropertyConstant#FIELD_ORDER}, or -1 if it is not listed.
+     */
+    public int getOrderPosition(int slot) {
+        return orderPositions[slot];
+    }
+
+    /**
+     * @param position A position in {@link PropertyConstant#FIELD_ORDER}, below {@link #getOrderedCount()}.
+     * @return The slot of the field at that position.
+     */
+    public int getOrderedSlot(int position) {
+        return orderedSlots[position];
+    }
+
+    /**
+     * @return The number of fields extracted in the order of {@link PropertyConstant#FIELD_ORDER}.
+     */
+    public int getOrderedCount() {
+        return orderedSlots.length;
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return The value of the field if it is declared constant, otherwise null.
+     */
+    public String getConstant(int slot) {
+        return constants[slot];
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return The template of the field if it is derived from other fields, otherwise null.
+     */
+    FieldTemplate getTemplate(int slot) {
+        return templates[slot];
+    }
+
+    /**
+     * @return The number of regions declared by {@link PropertyConstant#REGIONS}.
+     */
+    public int getRegionCount() {
+        return regionExtractors.length;
+    }
+
+    /**
+     * @param slot A slot of this plan.
+     * @return The region the field is matched in, below {@link #getRegionCount()}; -1 if it is matched in the
+     * whole payload.
+     */
+    public int getRegion(int slot) {
+        return fieldRegions[slot];
+    }
+
+    /**
+     * Locates a region of the payload.
+     *
+     * @param payload The event payload.
+     * @param region  A region of this plan, below {@link #getRegionCount()}.
+     * @return The bounds of the region, see {@link IFieldExtractor#find(String, int)}; -1 if the payload does
+     * not have it.
+     */
+    public long locateRegion(String payload, int region) {
+        return regionExtractors[region].find(payload, 0);
+    }
+
+    /**
+     * Extracts all the batched fields in a single pass.
+     *
+     * @param payload The event payload.
+     * @param values  The values, indexed by slot; must have {@link #getSlotCount()} elements.
+     */
+    public void extractBatch(String payload, String[] values) {
+        if (batchExtractor != null) {
+            batchExtractor.extract(payload, values);
+        }
+    }
+
+    /**
+     * Fills the fields captured by the named groups of the multi-field regexes in a single pass.
+     *
+     * @param payload The event payload.
+     * @param values  The values, indexed by slot; must have {@link #getSlotCount()} elements.
+     */
+    public void extractMultiField(String payload, String[] values) {
+        if (multiFieldExtractor != null) {
+            multiFieldExtractor.extract(payload, values);
+        }
+    }
+
+    /**
+     * @return The prefilter of the required literals of the fields, or null if no field requires any.
+     */
+    LiteralPrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * @return The number of field extractions skipped because the payload lacked a literal the expression
+     * of the field requires.
+     */
+    public long getPrefilterSkipCount() {
+        return prefilter != null ? prefilter.getSkipCount() : 0;
+    }
+
+    /**
+     * Extracts the field in the given slot with its own expression.
+     *
+     * @param payload The event payload.
+     * @param slot    A slot of this plan.
+     * @return The value of the field, or null if it is not configured or not present in the payload.
+     */
+    public String extract(String payload, int slot) {
+        IFieldExtractor extractor = extractors[slot];
+        return extractor != null ? extractor.extract(payload) : null;
+    }
+
+    /**
+     * Extracts the field in the given slot with its own expression, from a region of the payload.
+     *
+     * @param payload The event payload.
+     * @param slot    A slot of this plan.
+     * @param start   The index of the region in the payload.
+     * @param end     The index after the region in the payload.
+     * @return The value of the field, or null if it is not configured or not present in the region.
+     */
+    public String extract(String payload, int slot, int start, int end) {
+        IFieldExtractor extractor = extractors[slot];
+        return extractor != null ? extractor.extract(payload, start, end) : null;
+    }
+
+    /**
+     * Finds the field in the given slot with its own expression, at or after an offset of the payload.
+     *
+     * @param payload The event payload.
+     * @param slot    A slot of this plan.
+     * @param from    The offset to search from.
+     * @return The bounds of the value, see {@link IFieldExtractor#find(String, int)}.
+     */
+    public long find(String payload, int slot, int from) {
+        IFieldExtractor extractor = extractors[slot];
+        return extractor != null ? extractor.find(payload, from) : -1;
+    }
+
+    /**
+     * Extracts the int field in the given slot with its own expression, without exceptions.
+     *
+     * @param payload The event payload.
+     * @param slot    A slot of this plan.
+     * @return The int value, or a status of {@link IntValues}.
+     */
+    public long extractInt(String payload, int slot) {
+        IFieldExtractor extractor = extractors[slot];
+        return extractor != null ? extractor.extractInt(payload) : IntValues.MISSING;
+    }
+}
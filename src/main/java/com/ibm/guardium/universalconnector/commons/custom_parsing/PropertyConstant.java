@@ -43,4 +43,15 @@ public class PropertyConstant {
     public static final String TIMESTAMP = "timstamp";
     public static final String ACCESSOR_TYPE = "accessor_type";   //just used this for accessor.type need to update it after discussing
     public static final String DATABASE_NOT_AVAILABLE = "N.A.";
+    public static final String TIMESTAMP_FORMATS = "timestamp_formats";   // a format of the timstamp field, or a list of them tried in order, see TimestampFormats
+    public static final String TIMESTAMP_ZONE = "timestamp_zone";   // the zone of timestamps that do not have one, UTC by default
+    public static final String MULTI_FIELD_REGEX = "multi_field_regex";   // a regex with named groups, or a list of them, that fills many fields in one match
+    public static final String RECORD_TIMEOUT_MICROS = "record_timeout_micros";   // the time all the field extractions of a record may take, unlimited by default
+    public static final String MAX_REGEX_DEGREE = "max_regex_degree";   // rejects fields whose expression may take longer than O(n^k) on a payload of n chars
+    public static final String FIELD_ORDER = "field_order";   // the fields in the order they appear in payloads, extracted each from where the previous one ended
+    public static final String REGIONS = "regions";   // names regexes that each locate a region of payloads, e.g. a header, once per record
+    public static final String CONSTANT_FIELDS = "constant_fields";   // fields that have the same value in every event, by key
+    public static final String DERIVED_FIELDS = "derived_fields";   // fields built from other fields by templates such as "${db_user}@${server_hostname}", by key
+    public static final String FILTER_RULES = "filter_rules";   // rules that keep or drop events before their record is built, see FilterRule
+    public static final String FIELD_REGIONS = "field_regions";   // the region, by name, that the expression of each field is matched in
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+/**
+ * The extractable fields of a connector config. A field's ordinal is its slot in a {@link ParsingPlan},
+ * so that per-event lookups index an array instead of hashing the {@link PropertyConstant} key.
+ */
+public enum PropertyField {
+    SESSION_ID(PropertyConstant.SESSION_ID),
+    DB_NAME(PropertyConstant.DB_NAME),
+    CLIENT_PORT(PropertyConstant.CLIENT_PORT),
+    CLIENT_OS(PropertyConstant.CLIENT_OS),
+    SERVER_PORT(PropertyConstant.SERVER_PORT),
+    DB_USER(PropertyConstant.DB_USER),
+    SERVER_TYPE(PropertyConstant.SERVER_TYPE),
+    DB_PROTOCOL(PropertyConstant.DB_PROTOCOL),
+    EXCEPTION_TYPE_ID(PropertyConstant.EXCEPTION_TYPE_ID),
+    SERVICE_NAME(PropertyConstant.SERVICE_NAME),
+    APP_USER_NAME(PropertyConstant.APP_USER_NAME),
+    CLIENT_HOSTNAME(PropertyConstant.CLIENT_HOSTNAME),
+    CLIENT_IP(PropertyConstant.CLIENT_IP),
+    CLIENT_IPV6(PropertyConstant.CLIENT_IPV6),
+    CLIENT_MAC(PropertyConstant.CLIENT_MAC),
+    COMM_PROTOCOL(PropertyConstant.COMM_PROTOCOL),
+    DB_PROTOCOL_VERSION(PropertyConstant.DB_PROTOCOL_VERSION),
+    DESCRIPTION(PropertyConstant.DESCRIPTION),
+    IS_IPV6(PropertyConstant.IS_IPV6),
+    MIN_DST(PropertyConstant.MIN_DST),
+    MIN_OFFSET_FROM_GMT(PropertyConstant.MIN_OFFSET_FROM_GMT),
+    ORIGINAL_SQL_COMMAND(PropertyConstant.ORIGINAL_SQL_COMMAND),
+    OS_USER(PropertyConstant.OS_USER),
+    SERVER_DESCRIPTION(PropertyConstant.SERVER_DESCRIPTION),
+    SERVER_HOSTNAME(PropertyConstant.SERVER_HOSTNAME),
+    SERVER_IP(PropertyConstant.SERVER_IP),
+    SERVER_IPV6(PropertyConstant.SERVER_IPV6),
+    SERVER_OS(PropertyConstant.SERVER_OS),
+    SOURCE_PROGRAM(PropertyConstant.SOURCE_PROGRAM),
+    SQL_STRING(PropertyConstant.SQL_STRING),
+    VERB(PropertyConstant.VERB),
+    OBJECT(PropertyConstant.OBJECT),
+    TIMESTAMP(PropertyConstant.TIMESTAMP),
+    ACCESSOR_TYPE(PropertyConstant.ACCESSOR_TYPE);
+
+    private final String key;
+
+    PropertyField(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return The key of the field in the config file.
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,323 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Time;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The formats the timestamp of a source may have, as configured by {@link PropertyConstant#TIMESTAMP_FORMATS}:
+ * <ul>
+ * <li>{@code ISO}: an ISO-8601 date-time with a zone, the default, see {@link TimestampParser}</li>
+ * <li>{@code EPOCH_MILLIS} and {@code EPOCH_SECONDS}: the time since the epoch, the latter with optional
+ * fractional seconds</li>
+ * <li>{@code SYSLOG}: {@code MMM dd HH:mm:ss}, in the year that makes the timestamp the most recent one not
+ * later than a day from now</li>
+ * <li>any other value: a {@link DateTimeFormatter} pattern, e.g. {@code yyyy-MM-dd HH:mm:ss.SSS}</li>
+ * </ul>
+ * Timestamps without a zone are in the zone of {@link PropertyConstant#TIMESTAMP_ZONE}, UTC by default.
+ * <p>
+ * The format that parsed the last timestamp is tried first, so a source whose timestamps always have the
+ * same format pays for a single attempt. Pattern formats also remember the second of the last timestamp:
+ * a timestamp that only differs from it in its fractional seconds is not parsed again.
+ */
+public final class TimestampFormats {
+    private static final Logger logger = LogManager.getLogger(TimestampFormats.class);
+
+    public static final String ISO = "ISO";
+    public static final String EPOCH_MILLIS = "EPOCH_MILLIS";
+    public static final String EPOCH_SECONDS = "EPOCH_SECONDS";
+    public static final String SYSLOG = "SYSLOG";
+
+    static final TimestampFormats DEFAULT = new TimestampFormats(Collections.singletonList(new IsoFormat()));
+
+    private final Format[] formats;
+    // the index of the format that parsed the last timestamp; races only cost an extra attempt
+    private volatile int last;
+
+    private TimestampFormats(List<Format> formats) {
+        this.formats = formats.toArray(new Format[0]);
+    }
+
+    /**
+     * @param formats The configured formats, in the order they are tried.
+     * @param zone    The zone of timestamps that do not have one.
+     * @return The formats; ISO alone if none is valid.
+     */
+    public static TimestampFormats compile(List<String> formats, ZoneId zone) {
+        return compile(formats, zone, Clock.system(zone));
+    }
+
+    static TimestampFormats compile(List<String> formats, ZoneId zone, Clock clock) {
+        List<Format> compiled = new ArrayList<>();
+        for (String format : formats) {
+            switch (format) {
+                case ISO:
+                    compiled.add(new IsoFormat());
+                    break;
+                case EPOCH_MILLIS:
+                    compiled.add(new EpochFormat(false));
+                    break;
+                case EPOCH_SECONDS:
+                    compiled.add(new EpochFormat(true));
+                    break;
+                case SYSLOG:
+                    compiled.add(new SyslogFormat(zone, clock));
+                    break;
+                default:
+                    try {
+                        compiled.add(new PatternFormat(DateTimeFormatter.ofPattern(format, Locale.ENGLISH).withZone(zone)));
+                    } catch (IllegalArgumentException e) {
+                        logger.error("The timestamp format " + format + " is invalid, it will be ignored.", e);
+                    }
+            }
+        }
+        return compiled.isEmpty() ? DEFAULT : new TimestampFormats(compiled);
+    }
+
+    /**
+     * @param timestamp A timestamp.
+     * @return The time.
+     * @throws DateTimeParseException if no format matches the timestamp.
+     */
+    public Time parse(String timestamp) {
+        if (formats.length == 1 && formats[0] instanceof IsoFormat) {
+            return TimestampParser.parse(timestamp);
+        }
+        int first = last;
+        Time time = formats[first].parse(timestamp);
+        if (time != null) {
+            return time;
+        }
+        for (int i = 0; i < formats.length; i++) {
+            if (i != first && (time = formats[i].parse(timestamp)) != null) {
+                last = i;
+                return time;
+            }
+        }
+        throw new DateTimeParseException("Timestamp matches none of the configured formats", timestamp, 0);
+    }
+
+    private abstract static class Format {
+        /**
+         * @return The time, or null if the timestamp does not have this format.
+         */
+        abstract Time parse(String timestamp);
+    }
+
+    private static final class IsoFormat extends Format {
+        @Override
+        Time parse(String timestamp) {
+            try {
+                return TimestampParser.parse(timestamp);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class EpochFormat extends Format {
+        private final boolean seconds;
+
+        EpochFormat(boolean seconds) {
+            this.seconds = seconds;
+        }
+
+        @Override
+        Time parse(String timestamp) {
+            int length = timestamp.length();
+            int i = length > 0 && timestamp.charAt(0) == '-' ? 1 : 0;
+            int start = i;
+            long value = 0;
+            while (i < length && isDigit(timestamp.charAt(i)) && i - start < 18) {
+                value = value * 10 + (timestamp.charAt(i++) - '0');
+            }
+            if (i == start) {
+                return null;
+            }
+            long millis = 0;
+            if (seconds && i < length && timestamp.charAt(i) == '.') {
+                int scale = 100;
+                for (i++; i < length && isDigit(timestamp.charAt(i)); i++) {
+                    millis += (timestamp.charAt(i) - '0') * scale;
+                    scale /= 10;
+                }
+            }
+            if (i != length || (seconds && value > Long.MAX_VALUE / 1000)) {
+                return null;
+            }
+            if (seconds) {
+                value = value * 1000 + millis;
+            }
+            return new Time(start == 1 ? -value : value, 0, 0);
+        }
+    }
+
+    private static final class SyslogFormat extends Format {
+        private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+
+        private final ZoneId zone;
+        private final Clock clock;
+        private volatile Memo memo;
+
+        SyslogFormat(ZoneId zone, Clock clock) {
+            this.zone = zone;
+            this.clock = clock;
+        }
+
+        @Override
+        Time parse(String timestamp) {
+            if (timestamp.length() != 15 || timestamp.charAt(3) != ' ' || timestamp.charAt(6) != ' '
+                    || timestamp.charAt(9) != ':' || timestamp.charAt(12) != ':') {
+                return null;
+            }
+            Memo last = memo;
+            if (last != null && last.text.equals(timestamp)) {
+                return last.time(0);
+            }
+            int monthIndex = MONTHS.indexOf(timestamp.substring(0, 3));
+            int day = timestamp.charAt(4) == ' ' ? digits(timestamp, 5, 1) : digits(timestamp, 4, 2);
+            int hour = digits(timestamp, 7, 2);
+            int minute = digits(timestamp, 10, 2);
+            int second = digits(timestamp, 13, 2);
+            if (monthIndex < 0 || monthIndex % 3 != 0 || day < 1 || hour < 0 || minute < 0 || second < 0) {
+                return null;
+            }
+            int month = monthIndex / 3 + 1;
+            Instant now = clock.instant();
+            int year = now.atZone(zone).getYear();
+            try {
+                ZonedDateTime date = LocalDateTime.of(year, month, day, hour, minute, second).atZone(zone);
+                if (date.toInstant().isAfter(now.plusSeconds(86400))) {
+                    date = date.minusYears(1);
+                }
+                Memo parsed = new Memo(timestamp, 0, 0, date.toEpochSecond(), date.getOffset(),
+                        TimestampParser.isDaylightSavings(zone, date.toInstant()));
+                memo = parsed;
+                return parsed.time(0);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class PatternFormat extends Format {
+        private final DateTimeFormatter formatter;
+        private volatile Memo memo;
+
+        PatternFormat(DateTimeFormatter formatter) {
+            this.formatter = formatter;
+        }
+
+        @Override
+        Time parse(String timestamp) {
+            long fraction = fraction(timestamp);
+            int fractionStart = fraction < 0 ? timestamp.length() : (int) (fraction >>> 32);
+            int fractionEnd = fraction < 0 ? timestamp.length() : (int) fraction;
+
+            Memo last = memo;
+            if (last != null && last.sameSecond(timestamp, fractionStart, fractionEnd)) {
+                return last.time(nanos(timestamp, fractionStart, fractionEnd));
+            }
+            ZonedDateTime date;
+            try {
+                date = ZonedDateTime.from(formatter.parse(timestamp));
+            } catch (DateTimeException e) {
+                return null;
+            }
+            Instant instant = date.toInstant();
+            boolean daylightSavings = date.getZone() instanceof ZoneOffset ? false
+                    : TimestampParser.isDaylightSavings(date.getZone(), instant);
+            Memo parsed = new Memo(timestamp, fractionStart, fractionEnd, instant.getEpochSecond(), date.getOffset(),
+                    daylightSavings);
+            if (fractionEnd - fractionStart <= 9) {
+                memo = parsed;
+            }
+            return parsed.time(instant.getNano());
+        }
+
+        // the bounds of the fractional seconds that follow HH:mm:ss, packed as start << 32 | end, or -1
+        private static long fraction(String timestamp) {
+            for (int i = 8; i < timestamp.length(); i++) {
+                char c = timestamp.charAt(i);
+                if ((c == '.' || c == ',') && timestamp.charAt(i - 3) == ':' && timestamp.charAt(i - 6) == ':'
+                        && digits(timestamp, i - 2, 2) >= 0 && digits(timestamp, i - 5, 2) >= 0) {
+                    int end = i + 1;
+                    while (end < timestamp.length() && isDigit(timestamp.charAt(end))) {
+                        end++;
+                    }
+                    return end > i + 1 ? ((long) (i + 1) << 32) | end : -1;
+                }
+            }
+            return -1;
+        }
+
+        private static int nanos(String timestamp, int start, int end) {
+            int nanos = 0;
+            for (int i = start; i < start + 9; i++) {
+                nanos = nanos * 10 + (i < end ? timestamp.charAt(i) - '0' : 0);
+            }
+            return nanos;
+        }
+    }
+
+    // the second of the last timestamp a format parsed
+    private static final class Memo {
+        final String text;
+        final int fractionStart;
+        final int fractionEnd;
+        final long epochSecond;
+        final int minOffset;
+        final int minDst;
+
+        Memo(String text, int fractionStart, int fractionEnd, long epochSecond, ZoneOffset offset, boolean daylightSavings) {
+            this.text = text;
+            this.fractionStart = fractionStart;
+            this.fractionEnd = fractionEnd;
+            this.epochSecond = epochSecond;
+            this.minOffset = offset.getTotalSeconds() / 60;
+            this.minDst = daylightSavings ? 60 : 0;
+        }
+
+        // whether the timestamp only differs from this one in the digits of its fractional seconds
+        boolean sameSecond(String timestamp, int start, int end) {
+            return start == fractionStart && end - start == fractionEnd - fractionStart
+                    && timestamp.length() == text.length()
+                    && timestamp.regionMatches(0, text, 0, start)
+                    && timestamp.regionMatches(end, text, fractionEnd, text.length() - fractionEnd);
+        }
+
+        Time time(int nanos) {
+            return new Time(epochSecond * 1000 + nanos / 1_000_000, minOffset, minDst);
+        }
+    }
+
+    private static int digits(String s, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,211 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Time;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses the timestamp of a record into a {@link Time}. The common ISO-8601 forms, a date-time with a
+ * {@code Z} or {@code ±hh:mm} offset and optional fractional seconds, are parsed by hand without allocating
+ * anything but the Time. An offset has no daylight saving time, so their minDst is always 0. Other forms,
+ * such as a date-time with a region zone like {@code [Europe/Paris]}, are parsed by
+ * {@link DateTimeFormatter#ISO_DATE_TIME}, and the daylight saving time of each zone is remembered for the
+ * hour of the last timestamp, as long as the zone has no transition in that hour.
+ */
+public final class TimestampParser {
+    private static final long SECONDS_PER_DAY = 86400;
+    private static final ConcurrentHashMap<ZoneId, DstPeriod> dstPeriods = new ConcurrentHashMap<>();
+
+    private TimestampParser() {
+    }
+
+    /**
+     * Parses a timestamp the way {@link DateTimeFormatter#ISO_DATE_TIME} does.
+     *
+     * @param timestamp The timestamp, e.g. 2024-05-01T10:15:30.123Z.
+     * @return The time.
+     * @throws java.time.format.DateTimeParseException if the timestamp is not an ISO date-time with a zone.
+     */
+    public static Time parse(String timestamp) {
+        Time time = parseIsoOffsetDateTime(timestamp);
+        if (time != null) {
+            return time;
+        }
+        ZonedDateTime date = ZonedDateTime.parse(timestamp, DateTimeFormatter.ISO_DATE_TIME);
+        Instant instant = date.toInstant();
+        int minOffset = date.getOffset().getTotalSeconds() / 60;
+        int minDst = isDaylightSavings(date.getZone(), instant) ? 60 : 0;
+        return new Time(instant.toEpochMilli(), minOffset, minDst);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fffffffff]]} followed by {@code Z} or {@code ±hh:mm[:ss]}, with the
+     * same validation and case-insensitivity as {@link DateTimeFormatter#ISO_DATE_TIME}.
+     *
+     * @param s The timestamp.
+     * @return The time, or null if the timestamp is not of that form.
+     */
+    public static Time parseIsoOffsetDateTime(CharSequence s) {
+        int length = s.length();
+        if (length < 17 || s.charAt(4) != '-' || s.charAt(7) != '-' || (s.charAt(10) | 0x20) != 't'
+                || s.charAt(13) != ':') {
+            return null;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+
+        int i = 16;
+        int second = 0;
+        int nanos = 0;
+        if (i < length && s.charAt(i) == ':') {
+            second = i + 3 <= length ? digits(s, i + 1, 2) : -1;
+            if (second < 0 || second > 59) {
+                return null;
+            }
+            i += 3;
+            if (i < length && s.charAt(i) == '.') {
+                int start = ++i;
+                while (i < length && i - start < 9 && isDigit(s.charAt(i))) {
+                    nanos = nanos * 10 + (s.charAt(i++) - '0');
+                }
+                if (i == start) {
+                    return null;
+                }
+                for (int scale = i - start; scale < 9; scale++) {
+                    nanos *= 10;
+                }
+            }
+        }
+
+        if (i >= length) {
+            return null;
+        }
+        int offsetSeconds;
+        char sign = s.charAt(i);
+        if ((sign | 0x20) == 'z' && i + 1 == length) {
+            offsetSeconds = 0;
+        } else if ((sign == '+' || sign == '-') && (i + 6 == length || i + 9 == length) && s.charAt(i + 3) == ':') {
+            int offsetHours = digits(s, i + 1, 2);
+            int offsetMinutes = digits(s, i + 4, 2);
+            int offsetSecondsPart = 0;
+            if (i + 9 == length) {
+                offsetSecondsPart = s.charAt(i + 6) == ':' ? digits(s, i + 7, 2) : -1;
+            }
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59
+                    || offsetSecondsPart < 0 || offsetSecondsPart > 59) {
+                return null;
+            }
+            offsetSeconds = offsetHours * 3600 + offsetMinutes * 60 + offsetSecondsPart;
+            if (offsetSeconds > 18 * 3600) {
+                return null;
+            }
+            if (sign == '-') {
+                offsetSeconds = -offsetSeconds;
+            }
+        } else {
+            return null;
+        }
+
+        long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second
+                - offsetSeconds;
+        return new Time(epochSecond * 1000 + nanos / 1_000_000, offsetSeconds / 60, 0);
+    }
+
+    /**
+     * @return The value of count digits at offset, or -1 if one of them is not a digit.
+     */
+    private static int digits(CharSequence s, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // the number of days since 1970-01-01 of a proleptic Gregorian date, as computed by LocalDate.toEpochDay
+    private static long epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (lengthOfMonth(year, 2) == 28) {
+                total--;
+            }
+        }
+        // days from year 0 to 1970
+        return total - 719528;
+    }
+
+    // a period of a zone in which daylight saving time is either always or never in effect
+    private static final class DstPeriod {
+        final long from;
+        final long to;
+        final boolean daylightSavings;
+
+        DstPeriod(long from, long to, boolean daylightSavings) {
+            this.from = from;
+            this.to = to;
+            this.daylightSavings = daylightSavings;
+        }
+    }
+
+    static boolean isDaylightSavings(ZoneId zone, Instant instant) {
+        long epochSecond = instant.getEpochSecond();
+        DstPeriod period = dstPeriods.get(zone);
+        if (period != null && epochSecond >= period.from && epochSecond < period.to) {
+            return period.daylightSavings;
+        }
+        ZoneRules rules = zone.getRules();
+        boolean daylightSavings = rules.isDaylightSavings(instant);
+        long from = Math.floorDiv(epochSecond, 3600) * 3600;
+        long to = from + 3600;
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        if (previous != null) {
+            from = Math.max(from, previous.toEpochSecond());
+        }
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        if (next != null) {
+            to = Math.min(to, next.toEpochSecond());
+        }
+        dstPeriods.put(zone, new DstPeriod(from, to, daylightSavings));
+        return daylightSavings;
+    }
+}
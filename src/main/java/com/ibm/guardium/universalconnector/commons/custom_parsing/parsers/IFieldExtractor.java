@@ -0,0 +1,69 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+/**
+ * Extracts the value of one configured field from a payload. Extractors are created once per config
+ * by {@link IParser#compile(String)}, so that the per-event work is limited to the extraction itself.
+ * Implementations must be immutable, so that one extractor can be shared by all threads.
+ */
+public interface IFieldExtractor {
+    /** Returned by {@link #find(String, int)} by extractors that cannot search from an offset */
+    long UNSUPPORTED = -2;
+
+    /**
+     * @param payload The event payload.
+     * @return The value of the field, or null if it is not present in the payload.
+     */
+    String extract(String payload);
+
+    /**
+     * Extracts the value of an int field without allocating it or throwing on an invalid value. The
+     * default implementation parses the String returned by {@link #extract(String)}; extractors that know
+     * where the value lies in the payload parse it in place.
+     *
+     * @param payload The event payload.
+     * @return The int value, or a status of {@link IntValues}.
+     */
+    default long extractInt(String payload) {
+        return IntValues.parse(extract(payload));
+    }
+
+    /**
+     * Extracts the value of the field from a region of the payload, as if the region were the whole payload.
+     * The default implementation extracts it from a copy of the region; extractors that scan CharSequences
+     * scan a {@link PayloadRegion} instead.
+     *
+     * @param payload The event payload.
+     * @param start   The index of the region in the payload.
+     * @param end     The index after the region in the payload.
+     * @return The value of the field, or null if it is not present in the region.
+     */
+    default String extract(String payload, int start, int end) {
+        return extract(payload.substring(start, end));
+    }
+
+    /**
+     * Finds the value of the field at or after an offset of the payload, so that fields that appear in a
+     * known order can each be searched from where the previous one ended. The default implementation
+     * returns {@link #UNSUPPORTED}.
+     *
+     * @param payload The event payload.
+     * @param from    The offset to search from.
+     * @return The bounds of the value, to be read with {@link #start(long)} and {@link #end(long)}; -1 if
+     * the value is not present after the offset, or {@link #UNSUPPORTED}.
+     */
+    default long find(String payload, int from) {
+        return UNSUPPORTED;
+    }
+
+    static long bounds(int start, int end) {
+        return ((long) start << 32) | end;
+    }
+
+    static int start(long bounds) {
+        return (int) (bounds >>> 32);
+    }
+
+    static int end(long bounds) {
+        return (int) bounds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+/**
+ * Extracts several configured fields from a payload in a single pass. Fields are identified by the
+ * slots the caller assigned to them when the extractor was created. Implementations must be immutable,
+ * so that one extractor can be shared by all threads.
+ */
+public interface IMultiFieldExtractor {
+    /**
+     * Fills the values of the fields found in the payload. Slots that already hold a value, or whose
+     * field is not present in the payload, are left untouched.
+     *
+     * @param payload The event payload.
+     * @param values  The values, indexed by slot.
+     */
+    void extract(String payload, String[] values);
+}
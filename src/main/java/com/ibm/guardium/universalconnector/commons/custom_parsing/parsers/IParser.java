@@ -1,5 +1,57 @@
 package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
 
+import java.util.Collections;
+import java.util.List;
+
 public interface IParser {
     String parse(String payload, String key);
+
+    /**
+     * Prepares the key of a configured field for repeated extraction. The default implementation defers
+     * to {@link #parse(String, String)} for every event; parsers override it to do their key-specific
+     * work, such as compiling a regex, only once.
+     *
+     * @param key The configured key, e.g. a regex.
+     * @return An extractor equivalent to calling parse(payload, key).
+     */
+    default IFieldExtractor compile(String key) {
+        return payload -> parse(payload, key);
+    }
+
+    /**
+     * Prepares the keys of all configured fields for extraction in a single pass over the payload. Parsers
+     * of structured payloads override it, so that a payload is parsed once per event rather than once per
+     * field. The default implementation returns null: fields are then extracted one at a time, with the
+     * extractors returned by {@link #compile(String)}.
+     *
+     * @param keys The configured keys, indexed by slot; null where a slot has no key.
+     * @return An extractor of all the keys, or null if the parser extracts fields one at a time.
+     */
+    default IMultiFieldExtractor compileAll(String[] keys) {
+        return null;
+    }
+
+    /**
+     * Returns literals that a payload must contain for the key to extract a value, so that fields can be
+     * skipped without running their expression when a literal is missing. The default implementation
+     * returns no literal, which never skips a field.
+     *
+     * @param key The configured key, e.g. a regex.
+     * @return The required literals; empty if none are known.
+     */
+    default List<String> requiredLiterals(String key) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Estimates the worst-case time to extract the key from a payload of n chars, as the degree k of
+     * O(n^k), so that expressions prone to catastrophic backtracking can be reported or rejected when the
+     * config is loaded. The default implementation returns 1: parsers that walk the payload once are linear.
+     *
+     * @param key The configured key, e.g. a regex.
+     * @return The degree; Integer.MAX_VALUE if the time may be exponential, 0 if it is unknown.
+     */
+    default int worstCaseDegree(String key) {
+        return 1;
+    }
 }
@@ -0,0 +1,72 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+/**
+ * Parses int field values without exceptions. The result is a long that holds either the int value or one
+ * of the statuses below, which all lie outside the int range:
+ * <pre>
+ * long value = IntValues.parse(text, 0, text.length());
+ * if (IntValues.isInt(value)) { ... (int) value ... }
+ * </pre>
+ */
+public final class IntValues {
+    /** The field is not present */
+    public static final long MISSING = Long.MIN_VALUE;
+    /** The value is not a decimal integer */
+    public static final long INVALID = Long.MIN_VALUE + 1;
+    /** The value is an integer outside the int range */
+    public static final long OUT_OF_RANGE = Long.MIN_VALUE + 2;
+
+    private IntValues() {
+    }
+
+    /**
+     * @return Whether the result of a parse is an int value rather than a status.
+     */
+    public static boolean isInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Parses a decimal int from a region of text, accepting what {@link Integer#parseInt(String)} accepts.
+     *
+     * @param text The text; null gives {@link #MISSING}.
+     * @param from The start of the region.
+     * @param to   The end of the region, exclusive.
+     * @return The int value, {@link #INVALID} or {@link #OUT_OF_RANGE}.
+     */
+    public static long parse(CharSequence text, int from, int to) {
+        if (text == null) {
+            return MISSING;
+        }
+        if (from >= to) {
+            return INVALID;
+        }
+        char sign = text.charAt(from);
+        boolean negative = sign == '-';
+        int i = negative || sign == '+' ? from + 1 : from;
+        if (i == to) {
+            return INVALID;
+        }
+        long value = 0;
+        boolean overflow = false;
+        for (; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 10);
+            if (digit < 0) {
+                return INVALID;
+            }
+            if (!overflow) {
+                value = value * 10 + digit;
+                overflow = value > (long) Integer.MAX_VALUE + 1;
+            }
+        }
+        if (overflow) {
+            return OUT_OF_RANGE;
+        }
+        value = negative ? -value : value;
+        return isInt(value) ? value : OUT_OF_RANGE;
+    }
+
+    public static long parse(String text) {
+        return text != null ? parse(text, 0, text.length()) : MISSING;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts fields from a JSON payload by their JSON Pointer (RFC 6901), e.g. {@code /user/name} or
+ * {@code /records/0/id}. The pointers of all fields are merged into a trie, which drives a single streaming
+ * pass over the tokens of the payload: only the members on a requested path are visited, every other
+ * subtree is skipped, and the pass ends as soon as all paths were resolved. No tree is built.
+ * <p>
+ * Scalars are extracted as their text, JSON null as null, and objects and arrays as compact JSON.
+ */
+public class JsonPointerExtractor implements IMultiFieldExtractor {
+    private static final Logger logger = LogManager.getLogger(JsonPointerExtractor.class);
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final Node root = new Node();
+    private final int[] slots;
+    private final int pathCount;
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        int[] slots = new int[0];
+        // the index of the path ending here, or -1 if no pointer ends at this node
+        int path = -1;
+    }
+
+    /**
+     * @param pointers The JSON Pointers, indexed by slot; null where a slot has no pointer.
+     * @throws IllegalArgumentException if a pointer is not a valid JSON Pointer.
+     */
+    public JsonPointerExtractor(String[] pointers) {
+        List<Integer> resolved = new ArrayList<>();
+        int paths = 0;
+        for (int slot = 0; slot < pointers.length; slot++) {
+            if (pointers[slot] == null) {
+                continue;
+            }
+            Node node = root;
+            for (JsonPointer pointer = JsonPointer.compile(pointers[slot]); !pointer.matches(); pointer = pointer.tail()) {
+                node = node.children.computeIfAbsent(pointer.getMatchingProperty(), name -> new Node());
+            }
+            if (node.path < 0) {
+                node.path = paths++;
+            }
+            node.slots = Arrays.copyOf(node.slots, node.slots.length + 1);
+            node.slots[node.slots.length - 1] = slot;
+            resolved.add(slot);
+        }
+        slots = resolved.stream().mapToInt(Integer::intValue).toArray();
+        pathCount = paths;
+    }
+
+    /**
+     * @return The slots this extractor can fill.
+     */
+    public int[] getSlots() {
+        return slots;
+    }
+
+    @Override
+    public void extract(String payload, String[] values) {
+        if (pathCount == 0 || payload == null) {
+            return;
+        }
+        try (JsonParser parser = factory.createParser(payload)) {
+            if (parser.nextToken() != null) {
+                visit(parser, root, values, new Progress(pathCount));
+            }
+        } catch (IOException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Payload is not valid JSON, only the fields before the error were extracted -- event-payload: {}", payload, e);
+            }
+        }
+    }
+
+    // the paths resolved so far in the current payload; duplicate members only count once
+    private static final class Progress {
+        final boolean[] resolved;
+        int remaining;
+
+        Progress(int pathCount) {
+            resolved = new boolean[pathCount];
+            remaining = pathCount;
+        }
+
+        boolean resolve(Node node) {
+            if (!resolved[node.path]) {
+                resolved[node.path] = true;
+                remaining--;
+            }
+            return remaining == 0;
+        }
+    }
+
+    /**
+     * Visits the value the parser is positioned on, which is at the path of the node.
+     *
+     * @return Whether all paths are resolved and the pass can stop.
+     */
+    private static boolean visit(JsonParser parser, Node node, String[] values, Progress progress) throws IOException {
+        if (node.path < 0) {
+            return visitChildren(parser, node, values, progress);
+        }
+        if (node.children.isEmpty() || !parser.currentToken().isStructStart()) {
+            fill(node, valueOf(parser), values, progress);
+            return progress.resolve(node);
+        }
+        // both the container and paths below it are requested, which needs its tokens twice
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentStructure(parser);
+        try (JsonParser copy = buffer.asParser()) {
+            copy.nextToken();
+            fill(node, valueOf(copy), values, progress);
+        }
+        if (progress.resolve(node)) {
+            return true;
+        }
+        try (JsonParser copy = buffer.asParser()) {
+            copy.nextToken();
+            return visitChildren(copy, node, values, progress);
+        }
+    }
+
+    private static boolean visitChildren(JsonParser parser, Node node, String[] values, Progress progress) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.children.get(parser.currentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else if (visit(parser, child, values, progress)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            for (token = parser.nextToken(); token != null && token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+                Node child = node.children.get(String.valueOf(index));
+                if (child == null) {
+                    parser.skipChildren();
+                } else if (visit(parser, child, values, progress)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void fill(Node node, String value, String[] values, Progress progress) {
+        if (progress.resolved[node.path]) {
+            return;
+        }
+        for (int slot : node.slots) {
+            if (values[slot] == null) {
+                values[slot] = value;
+            }
+        }
+    }
+
+    /**
+     * Reads the value the parser is positioned on, consuming it entirely.
+     */
+    private static String valueOf(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isStructStart()) {
+            return parser.getText();
+        }
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = factory.createGenerator(json)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return json.toString();
+    }
+}
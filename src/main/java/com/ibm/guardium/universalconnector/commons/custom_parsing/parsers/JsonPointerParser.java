@@ -0,0 +1,31 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+/**
+ * Parses JSON payloads; the configured key of a field is a JSON Pointer such as {@code /userIdentity/userName}.
+ * All fields of a config are extracted together, in a single streaming pass, by {@link JsonPointerExtractor}.
+ */
+public class JsonPointerParser implements IParser {
+
+    @Override
+    public String parse(String payload, String pointer) {
+        if (pointer == null) {
+            return null;
+        }
+        return compile(pointer).extract(payload);
+    }
+
+    @Override
+    public IFieldExtractor compile(String pointer) {
+        JsonPointerExtractor extractor = new JsonPointerExtractor(new String[]{pointer});
+        return payload -> {
+            String[] values = new String[1];
+            extractor.extract(payload, values);
+            return values[0];
+        };
+    }
+
+    @Override
+    public IMultiFieldExtractor compileAll(String[] pointers) {
+        return new JsonPointerExtractor(pointers);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.LinearRegex;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RequiredLiterals;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.UnsupportedRegexException;
+
+import java.util.List;
+
+/**
+ * Extracts fields with regexes, like {@link RegexParser}, but matches them with {@link LinearRegex}, whose
+ * cost is linear in the length of the payload whatever the regex. It suits connectors whose regexes are
+ * edited by customers, where a regex prone to catastrophic backtracking would otherwise spend its whole
+ * timeout on every event that triggers it.
+ * <p>
+ * A regex that needs a construct the linear engine lacks is rejected when the config is loaded, with a
+ * message that names the construct; its field is then not extracted.
+ */
+public class LinearRegexParser implements IParser {
+
+    /**
+     * Compiles the regex on every call; use {@link #compile(String)} to extract a field repeatedly.
+     */
+    @Override
+    public String parse(String payload, String regexString) {
+        if (regexString == null) {
+            return null;
+        }
+        return compile(regexString).extract(payload);
+    }
+
+    /**
+     * @throws IllegalArgumentException If the regex needs a construct the linear engine does not support.
+     */
+    @Override
+    public IFieldExtractor compile(String regexString) {
+        try {
+            return new LinearFieldExtractor(LinearRegex.compile(regexString));
+        } catch (UnsupportedRegexException e) {
+            throw new IllegalArgumentException("The regex cannot be matched in linear time: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> requiredLiterals(String regexString) {
+        return RequiredLiterals.of(regexString);
+    }
+
+    private static final class LinearFieldExtractor implements IFieldExtractor {
+        private final LinearRegex regex;
+        // the group that holds the value: the first capture group, or the whole match if there is none
+        private final int group;
+
+        LinearFieldExtractor(LinearRegex regex) {
+            this.regex = regex;
+            this.group = regex.groupCount() > 0 ? 1 : 0;
+        }
+
+        @Override
+        public String extract(String payload) {
+            int[] bounds = regex.find(payload);
+            if (bounds == null || bounds[2 * group] < 0) {
+                return null;
+            }
+            return payload.substring(bounds[2 * group], bounds[2 * group + 1]);
+        }
+
+        @Override
+        public String extract(String payload, int start, int end) {
+            int[] bounds = regex.find(new PayloadRegion(payload, start, end));
+            if (bounds == null || bounds[2 * group] < 0) {
+                return null;
+            }
+            return payload.substring(start + bounds[2 * group], start + bounds[2 * group + 1]);
+        }
+
+        @Override
+        public long extractInt(String payload) {
+            int[] bounds = regex.find(payload);
+            if (bounds == null || bounds[2 * group] < 0) {
+                return IntValues.MISSING;
+            }
+            return IntValues.parse(payload, bounds[2 * group], bounds[2 * group + 1]);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexAnalyzer;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexExecutor;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fills many fields from one match of a regex with named capture groups, e.g.
+ * <pre>
+ * \[Session ID: (?&lt;sessionId&gt;\d+)\] \[DB User: (?&lt;dbUser&gt;\w+)\]
+ * </pre>
+ * Each regex of the ordered list is matched once against the payload; a field keeps the first non-null
+ * group captured for it. Group names cannot contain underscores, so a group names a field when they are
+ * equal ignoring case and underscores, e.g. group {@code sessionId} fills {@code session_id}.
+ */
+public class NamedGroupExtractor implements IMultiFieldExtractor {
+    private static final Logger logger = LogManager.getLogger(NamedGroupExtractor.class);
+
+    private static final RegexExecutor executor = new RegexExecutor();
+
+    private final Pattern[] patterns;
+    private final String[][] groups;
+    private final int[][] slots;
+
+    /**
+     * @param regexes      The regexes, in the order they take precedence.
+     * @param slotResolver Returns the slot of the field a group name refers to, or -1 if there is none.
+     */
+    public NamedGroupExtractor(List<String> regexes, ToIntFunction<String> slotResolver) {
+        int size = regexes.size();
+        patterns = new Pattern[size];
+        groups = new String[size][];
+        slots = new int[size][];
+
+        for (int i = 0; i < size; i++) {
+            String regex = regexes.get(i);
+            patterns[i] = RegexParser.getPatternCache().get(RegexAnalyzer.harden(regex));
+
+            List<String> names = new ArrayList<>();
+            List<Integer> resolved = new ArrayList<>();
+            for (String name : groupNames(regex)) {
+                int slot = slotResolver.applyAsInt(name);
+                if (slot < 0) {
+                    logger.warn("Named group {} of regex {} does not refer to a field, it will be ignored.", name, regex);
+                    continue;
+                }
+                names.add(name);
+                resolved.add(slot);
+            }
+            groups[i] = names.toArray(new String[0]);
+            slots[i] = resolved.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * @return The slots this extractor can fill.
+     */
+    public int[] getSlots() {
+        return Arrays.stream(slots).flatMapToInt(Arrays::stream).distinct().toArray();
+    }
+
+    @Override
+    public void extract(String payload, String[] values) {
+        for (int i = 0; i < patterns.length; i++) {
+            RegexResult rr = executor.findReusing(patterns[i], payload);
+            if (!rr.matched()) {
+                if (rr.timedOut() && logger.isDebugEnabled()) {
+                    logger.debug("Regex parse aborted due to taking too long to match -- regex: {}, event-payload: {}", patterns[i], payload);
+                }
+                continue;
+            }
+            Matcher m = rr.getMatcher();
+            for (int j = 0; j < slots[i].length; j++) {
+                int slot = slots[i][j];
+                if (values[slot] == null) {
+                    values[slot] = m.group(groups[i][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the named capture groups of a regex, in order of appearance.
+     */
+    static List<String> groupNames(String regex) {
+        List<String> names = new ArrayList<>();
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(' && regex.startsWith("?<", i + 1) && i + 3 < regex.length()
+                    && Character.isLetter(regex.charAt(i + 3))) {
+                int end = regex.indexOf('>', i + 3);
+                if (end > 0) {
+                    names.add(regex.substring(i + 3, end));
+                    i = end;
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Normalizes a field key or group name so that the two can be compared.
+     */
+    public static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
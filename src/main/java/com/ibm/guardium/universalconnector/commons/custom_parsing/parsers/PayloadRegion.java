@@ -0,0 +1,58 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+/**
+ * A region of a payload seen as a CharSequence, so that an expression can scan it without the region being
+ * copied. Indexes are relative to the start of the region; {@link #offset()} maps them back to the payload.
+ */
+public final class PayloadRegion implements CharSequence {
+    private final String payload;
+    private final int start;
+    private final int end;
+
+    /**
+     * @param payload The payload.
+     * @param start   The index of the first char of the region in the payload.
+     * @param end     The index after the last char of the region in the payload.
+     */
+    public PayloadRegion(String payload, int start, int end) {
+        if (start < 0 || end > payload.length() || start > end) {
+            throw new IndexOutOfBoundsException("Region [" + start + ", " + end + ") of a payload of length " + payload.length());
+        }
+        this.payload = payload;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The index of the region in the payload.
+     */
+    public int offset() {
+        return start;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("Index " + index + " of a region of length " + (end - start));
+        }
+        return payload.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > end - start || from > to) {
+            throw new IndexOutOfBoundsException("Subsequence [" + from + ", " + to + ") of a region of length " + (end - start));
+        }
+        return new PayloadRegion(payload, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return payload.substring(start, end);
+    }
+}
@@ -1,10 +1,15 @@
 package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
 
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.LiteralLookaroundScanner;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.PatternCache;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexAnalyzer;
 import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexExecutor;
 import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexResult;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RequiredLiterals;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,23 +17,140 @@ public class RegexParser implements IParser {
     private static final Logger logger = LogManager.getLogger(RegexParser.class);
 
     private static final RegexExecutor executor = new RegexExecutor();
+    private static final PatternCache patternCache = new PatternCache();
 
     @Override
     public String parse(String payload, String regexString) {
         if (regexString == null) {
             return null;
         }
-        Pattern pattern = Pattern.compile(regexString);
-        RegexResult rr = executor.find(pattern, payload);
-        if (rr.matched()) {
-            Matcher m = rr.getMatcher();
-            return m.groupCount() > 0 ? m.group(1) : m.group();
-        } else {
-            if (rr.timedOut() && logger.isDebugEnabled()) {
-                logger.debug("Regex parse aborted due to taking too long to match -- regex: {}, event-payload: {}", pattern, payload);
+        return find(patternCache.get(regexString), payload);
+    }
+
+    /**
+     * Compiles the regex of a field. Regexes of the "label: value" shape handled by
+     * {@link LiteralLookaroundScanner} are matched by a scan instead of the regex engine. Other regexes are
+     * {@link RegexAnalyzer#harden(String) hardened} first.
+     */
+    @Override
+    public IFieldExtractor compile(String regexString) {
+        return new RegexFieldExtractor(patternCache.get(RegexAnalyzer.harden(regexString)),
+                LiteralLookaroundScanner.compile(regexString));
+    }
+
+    private static final class RegexFieldExtractor implements IFieldExtractor {
+        private final Pattern pattern;
+        // null if the regex does not have a shape the scanner handles
+        private final LiteralLookaroundScanner scanner;
+
+        RegexFieldExtractor(Pattern pattern, LiteralLookaroundScanner scanner) {
+            this.pattern = pattern;
+            this.scanner = scanner;
+        }
+
+        @Override
+        public String extract(String payload) {
+            long bounds = scan(payload);
+            if (bounds == LiteralLookaroundScanner.UNDECIDED) {
+                return RegexParser.find(pattern, payload);
+            }
+            return bounds < 0 ? null : payload.substring(LiteralLookaroundScanner.start(bounds), LiteralLookaroundScanner.end(bounds));
+        }
+
+        /**
+         * Parses the matched value where it lies in the payload, without extracting it.
+         */
+        @Override
+        public long extractInt(String payload) {
+            long bounds = scan(payload);
+            if (bounds == LiteralLookaroundScanner.UNDECIDED) {
+                Matcher m = match(pattern, payload);
+                if (m == null) {
+                    return IntValues.MISSING;
+                }
+                int group = m.groupCount() > 0 ? 1 : 0;
+                return m.start(group) < 0 ? IntValues.MISSING : IntValues.parse(payload, m.start(group), m.end(group));
+            }
+            return bounds < 0 ? IntValues.MISSING
+                    : IntValues.parse(payload, LiteralLookaroundScanner.start(bounds), LiteralLookaroundScanner.end(bounds));
+        }
+
+        /**
+         * Matches the region through a {@link PayloadRegion}, so that only the value is copied.
+         */
+        @Override
+        public String extract(String payload, int start, int end) {
+            PayloadRegion region = new PayloadRegion(payload, start, end);
+            long bounds = find(region, 0);
+            return bounds < 0 ? null : payload.substring(start + IFieldExtractor.start(bounds), start + IFieldExtractor.end(bounds));
+        }
+
+        @Override
+        public long find(String payload, int from) {
+            return find((CharSequence) payload, from);
+        }
+
+        private long find(CharSequence payload, int from) {
+            long bounds = scanner != null ? scanner.find(payload, from) : LiteralLookaroundScanner.UNDECIDED;
+            if (bounds != LiteralLookaroundScanner.UNDECIDED) {
+                return bounds;
+            }
+            Matcher m = match(pattern, payload, from);
+            if (m == null) {
+                return -1;
             }
+            int group = m.groupCount() > 0 ? 1 : 0;
+            return m.start(group) < 0 ? -1 : IFieldExtractor.bounds(m.start(group), m.end(group));
+        }
+
+        private long scan(String payload) {
+            return scanner != null ? scanner.find(payload) : LiteralLookaroundScanner.UNDECIDED;
+        }
+    }
+
+    @Override
+    public List<String> requiredLiterals(String regexString) {
+        return RequiredLiterals.of(regexString);
+    }
+
+    /**
+     * Estimates the worst-case matching time of the regex as it is compiled, i.e. once hardened.
+     */
+    @Override
+    public int worstCaseDegree(String regexString) {
+        return RegexAnalyzer.worstCaseDegree(RegexAnalyzer.harden(regexString));
+    }
+
+    private static String find(Pattern pattern, String payload) {
+        Matcher m = match(pattern, payload);
+        if (m == null) {
             return null;
         }
+        return m.groupCount() > 0 ? m.group(1) : m.group();
+    }
+
+    /**
+     * @return The matcher positioned on the first match, or null if there is none.
+     */
+    private static Matcher match(Pattern pattern, String payload) {
+        return match(pattern, payload, 0);
     }
 
+    private static Matcher match(Pattern pattern, CharSequence payload, int from) {
+        RegexResult rr = executor.findReusing(pattern, payload, from);
+        if (rr.matched()) {
+            return rr.getMatcher();
+        }
+        if (rr.timedOut() && logger.isDebugEnabled()) {
+            logger.debug("Regex parse aborted due to taking too long to match -- regex: {}, event-payload: {}", pattern, payload);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cache of compiled Patterns shared by all RegexParsers, e.g. to monitor its hit rate.
+     */
+    public static PatternCache getPatternCache() {
+        return patternCache;
+    }
 }
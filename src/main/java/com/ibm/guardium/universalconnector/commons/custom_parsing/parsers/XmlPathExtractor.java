@@ -0,0 +1,218 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts fields from an XML payload by their path from the root element, e.g.
+ * {@code /AuditRecord/DBUser} for the text of an element or {@code /AuditRecord/Session/@id} for an
+ * attribute. Names are matched on their local part, ignoring namespaces, and the first matching element
+ * wins.
+ * <p>
+ * The paths of all fields are merged into a trie, which drives a single forward pass of a StAX reader: the
+ * subtrees of elements that are not on a requested path are skipped, and reading stops as soon as all paths
+ * were resolved, so memory stays flat however large the document is. No DOM is built. DTDs and external
+ * entities are not supported.
+ * <p>
+ * The value of an element is all the text it contains, including that of its descendants, trimmed.
+ */
+public class XmlPathExtractor implements IMultiFieldExtractor {
+    private static final Logger logger = LogManager.getLogger(XmlPathExtractor.class);
+
+    private static final XMLInputFactory factory = XMLInputFactory.newInstance();
+
+    static {
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final Node root = new Node();
+    private final int[] slots;
+    private final int pathCount;
+
+    private static final class Node {
+        // child elements by local name, and attributes by local name prefixed with '@'
+        final Map<String, Node> children = new HashMap<>();
+        int[] slots = new int[0];
+        // the index of the path ending here, or -1 if no path ends at this node
+        int path = -1;
+    }
+
+    /**
+     * @param paths The paths, indexed by slot; null where a slot has no path.
+     * @throws IllegalArgumentException if a path is not of the form /element/.../element or /element/.../@attribute.
+     */
+    public XmlPathExtractor(String[] paths) {
+        List<Integer> resolved = new ArrayList<>();
+        int count = 0;
+        for (int slot = 0; slot < paths.length; slot++) {
+            if (paths[slot] == null) {
+                continue;
+            }
+            Node node = root;
+            List<String> segments = segments(paths[slot]);
+            for (String segment : segments) {
+                node = node.children.computeIfAbsent(segment, name -> new Node());
+            }
+            if (node.path < 0) {
+                node.path = count++;
+            }
+            node.slots = Arrays.copyOf(node.slots, node.slots.length + 1);
+            node.slots[node.slots.length - 1] = slot;
+            resolved.add(slot);
+        }
+        slots = resolved.stream().mapToInt(Integer::intValue).toArray();
+        pathCount = count;
+    }
+
+    private static List<String> segments(String path) {
+        if (!path.startsWith("/") || path.endsWith("/")) {
+            throw new IllegalArgumentException("Invalid XML path, expected /element/.../element or /element/.../@attribute: " + path);
+        }
+        List<String> segments = Arrays.asList(path.substring(1).split("/"));
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            boolean attribute = segment.startsWith("@");
+            if (segment.isEmpty() || (attribute && (i == 0 || i < segments.size() - 1 || segment.length() == 1))) {
+                throw new IllegalArgumentException("Invalid XML path, expected /element/.../element or /element/.../@attribute: " + path);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * @return The slots this extractor can fill.
+     */
+    public int[] getSlots() {
+        return slots;
+    }
+
+    @Override
+    public void extract(String payload, String[] values) {
+        if (pathCount == 0 || payload == null) {
+            return;
+        }
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(new StringReader(payload));
+            read(reader, values);
+        } catch (XMLStreamException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Payload is not valid XML, only the fields before the error were extracted -- event-payload: {}", payload, e);
+            }
+        } finally {
+            close(reader);
+        }
+    }
+
+    // an element whose text is being collected
+    private static final class Capture {
+        final Node node;
+        final int depth;
+        final StringBuilder text = new StringBuilder();
+
+        Capture(Node node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+    }
+
+    private void read(XMLStreamReader reader, String[] values) throws XMLStreamException {
+        boolean[] resolved = new boolean[pathCount];
+        int remaining = pathCount;
+        // the trie node of each open element, null for elements off the requested paths
+        List<Node> open = new ArrayList<>();
+        List<Capture> captures = new ArrayList<>();
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT: {
+                    Node parent = open.isEmpty() ? root : open.get(open.size() - 1);
+                    Node node = parent != null ? parent.children.get(reader.getLocalName()) : null;
+                    if (node == null && captures.isEmpty()) {
+                        skipElement(reader);
+                        break;
+                    }
+                    open.add(node);
+                    if (node == null) {
+                        break;
+                    }
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        Node attribute = node.children.get("@" + reader.getAttributeLocalName(i));
+                        if (attribute != null && !resolved[attribute.path]) {
+                            fill(attribute, reader.getAttributeValue(i), values);
+                            resolved[attribute.path] = true;
+                            if (--remaining == 0) {
+                                return;
+                            }
+                        }
+                    }
+                    if (node.path >= 0 && !resolved[node.path]) {
+                        captures.add(new Capture(node, open.size()));
+                    }
+                    break;
+                }
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    for (Capture capture : captures) {
+                        capture.text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (!captures.isEmpty() && captures.get(captures.size() - 1).depth == open.size()) {
+                        Capture capture = captures.remove(captures.size() - 1);
+                        fill(capture.node, capture.text.toString().trim(), values);
+                        resolved[capture.node.path] = true;
+                        if (--remaining == 0) {
+                            return;
+                        }
+                    }
+                    open.remove(open.size() - 1);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        for (int depth = 1; depth > 0; ) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static void fill(Node node, String value, String[] values) {
+        for (int slot : node.slots) {
+            if (values[slot] == null) {
+                values[slot] = value;
+            }
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                logger.debug("Failed to close the XML reader", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+/**
+ * Parses XML payloads; the configured key of a field is a path from the root element, such as
+ * {@code /AuditRecord/DBUser} or {@code /AuditRecord/Session/@id}. All fields of a config are extracted
+ * together, in a single streaming pass, by {@link XmlPathExtractor}.
+ */
+public class XmlPathParser implements IParser {
+
+    @Override
+    public String parse(String payload, String path) {
+        if (path == null) {
+            return null;
+        }
+        return compile(path).extract(payload);
+    }
+
+    @Override
+    public IFieldExtractor compile(String path) {
+        XmlPathExtractor extractor = new XmlPathExtractor(new String[]{path});
+        return payload -> {
+            String[] values = new String[1];
+            extractor.extract(payload, values);
+            return values[0];
+        };
+    }
+
+    @Override
+    public IMultiFieldExtractor compileAll(String[] paths) {
+        return new XmlPathExtractor(paths);
+    }
+}
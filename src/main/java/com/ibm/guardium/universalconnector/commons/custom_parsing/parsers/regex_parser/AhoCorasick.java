@@ -0,0 +1,147 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * An Aho-Corasick automaton that finds which of a set of literals occur in a text in a single pass.
+ * Transitions on ASCII chars are precomputed into a table; other chars walk the failure links.
+ * An automaton is immutable once built and can be shared by all threads.
+ */
+public final class AhoCorasick {
+    private static final int ASCII = 128;
+
+    private final int literalCount;
+    // goto-with-failure table for ASCII chars: delta[state * ASCII + c]
+    private final int[] delta;
+    // trie edges and failure links, used for non-ASCII chars
+    private final List<Map<Character, Integer>> edges;
+    private final int[] failure;
+    // the literals that end at each state, including through failure links
+    private final int[][] outputs;
+    private final boolean hasNonAscii;
+
+    /**
+     * @param literals The literals to search for; their index is their id.
+     */
+    public AhoCorasick(List<String> literals) {
+        literalCount = literals.size();
+        edges = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        edges.add(new HashMap<>());
+        out.add(new ArrayList<>());
+
+        boolean nonAscii = false;
+        for (int id = 0; id < literals.size(); id++) {
+            String literal = literals.get(id);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Literals cannot be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                nonAscii |= c >= ASCII;
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.add(new HashMap<>());
+                    out.add(new ArrayList<>());
+                    edges.get(state).put(c, next);
+                }
+                state = next;
+            }
+            out.get(state).add(id);
+        }
+        hasNonAscii = nonAscii;
+
+        int states = edges.size();
+        failure = new int[states];
+        delta = new int[states * ASCII];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (Map.Entry<Character, Integer> edge : edges.get(0).entrySet()) {
+            queue.add(edge.getValue());
+            if (edge.getKey() < ASCII) {
+                delta[edge.getKey()] = edge.getValue();
+            }
+        }
+        // breadth first, so the failure link of a state is complete before its children are visited
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            out.get(state).addAll(out.get(failure[state]));
+            for (int c = 0; c < ASCII; c++) {
+                Integer next = edges.get(state).get((char) c);
+                delta[state * ASCII + c] = next != null ? next : delta[failure[state] * ASCII + c];
+            }
+            for (Map.Entry<Character, Integer> edge : edges.get(state).entrySet()) {
+                int child = edge.getValue();
+                failure[child] = step(failure[state], edge.getKey());
+                queue.add(child);
+            }
+        }
+
+        outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            outputs[state] = out.get(state).stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    public int getLiteralCount() {
+        return literalCount;
+    }
+
+    /**
+     * Marks the literals that occur in the text. Stops early once all literals were found.
+     *
+     * @param text  The text to search.
+     * @param found Set to true at the id of every literal found; must have {@link #getLiteralCount()} elements.
+     * @return The number of distinct literals found.
+     */
+    public int search(CharSequence text, boolean[] found) {
+        Arrays.fill(found, false);
+        int count = 0;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c < ASCII) {
+                state = delta[state * ASCII + c];
+            } else {
+                state = hasNonAscii ? step(state, c) : 0;
+            }
+            for (int id : outputs[state]) {
+                if (!found[id]) {
+                    found[id] = true;
+                    if (++count == literalCount) {
+                        return count;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            Integer next = edges.get(state).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable set of chars, as matched by a regex character class. The set is stored as sorted,
+ * non-overlapping ranges, with a bitmap for ASCII so that the common case is a single bit test.
+ */
+public final class CharSet {
+    public static final CharSet EMPTY = new CharSet(new char[0]);
+    public static final CharSet ANY = range(Character.MIN_VALUE, Character.MAX_VALUE);
+    /** {@code \d} without the UNICODE_CHARACTER_CLASS flag */
+    public static final CharSet DIGIT = range('0', '9');
+    /** {@code \w} without the UNICODE_CHARACTER_CLASS flag */
+    public static final CharSet WORD = range('a', 'z').union(range('A', 'Z')).union(DIGIT).union(of('_'));
+    /** {@code \s} without the UNICODE_CHARACTER_CLASS flag */
+    public static final CharSet SPACE = range('\t', '\r').union(of(' '));
+    /** The line terminators recognized without the UNIX_LINES flag */
+    public static final CharSet LINE_TERMINATOR = of('\n').union(of('\r')).union(of('\u0085'))
+            .union(range('\u2028', '\u2029'));
+    /** {@code .} without the DOTALL flag */
+    public static final CharSet DOT = LINE_TERMINATOR.complement();
+
+    // pairs of inclusive bounds: [lo0, hi0, lo1, hi1, ...]
+    private final char[] ranges;
+    private final long ascii0;
+    private final long ascii1;
+
+    private CharSet(char[] ranges) {
+        this.ranges = ranges;
+        long bits0 = 0;
+        long bits1 = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            for (int c = ranges[i]; c <= ranges[i + 1] && c < 128; c++) {
+                if (c < 64) {
+                    bits0 |= 1L << c;
+                } else {
+                    bits1 |= 1L << (c - 64);
+                }
+            }
+        }
+        ascii0 = bits0;
+        ascii1 = bits1;
+    }
+
+    public static CharSet of(char c) {
+        return new CharSet(new char[]{c, c});
+    }
+
+    public static CharSet range(char lo, char hi) {
+        return new CharSet(new char[]{lo, hi});
+    }
+
+    public boolean contains(char c) {
+        if (c < 64) {
+            return (ascii0 & (1L << c)) != 0;
+        }
+        if (c < 128) {
+            return (ascii1 & (1L << (c - 64))) != 0;
+        }
+        int lo = 0;
+        int hi = ranges.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (c < ranges[2 * mid]) {
+                hi = mid - 1;
+            } else if (c > ranges[2 * mid + 1]) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    /**
+     * @return The char if this set holds exactly one, otherwise -1.
+     */
+    public int singleChar() {
+        return ranges.length == 2 && ranges[0] == ranges[1] ? ranges[0] : -1;
+    }
+
+    public CharSet union(CharSet other) {
+        List<char[]> all = new ArrayList<>();
+        for (int i = 0; i < ranges.length; i += 2) {
+            all.add(new char[]{ranges[i], ranges[i + 1]});
+        }
+        for (int i = 0; i < other.ranges.length; i += 2) {
+            all.add(new char[]{other.ranges[i], other.ranges[i + 1]});
+        }
+        all.sort((a, b) -> a[0] - b[0]);
+
+        char[] merged = new char[all.size() * 2];
+        int size = 0;
+        for (char[] range : all) {
+            if (size > 0 && range[0] <= merged[size - 1] + 1) {
+                merged[size - 1] = (char) Math.max(merged[size - 1], range[1]);
+            } else {
+                merged[size++] = range[0];
+                merged[size++] = range[1];
+            }
+        }
+        return new CharSet(Arrays.copyOf(merged, size));
+    }
+
+    public CharSet complement() {
+        char[] result = new char[ranges.length + 2];
+        int size = 0;
+        int next = Character.MIN_VALUE;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result[size++] = (char) next;
+                result[size++] = (char) (ranges[i] - 1);
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_VALUE) {
+            result[size++] = (char) next;
+            result[size++] = Character.MAX_VALUE;
+        }
+        return new CharSet(Arrays.copyOf(result, size));
+    }
+
+    public boolean intersects(CharSet other) {
+        int i = 0;
+        int j = 0;
+        while (i < ranges.length && j < other.ranges.length) {
+            if (ranges[i + 1] < other.ranges[j]) {
+                i += 2;
+            } else if (other.ranges[j + 1] < ranges[i]) {
+                j += 2;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The ranges of this set as pairs of inclusive bounds.
+     */
+    char[] ranges() {
+        return ranges;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof CharSet && Arrays.equals(ranges, ((CharSet) o).ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+}
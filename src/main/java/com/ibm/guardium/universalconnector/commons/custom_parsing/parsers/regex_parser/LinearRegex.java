@@ -0,0 +1,454 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexNode.*;
+
+import java.util.Arrays;
+
+/**
+ * A regex matched in time linear in the length of the input, whatever the regex: the regex is compiled to
+ * a Thompson NFA that a Pike VM runs over the input in a single pass, advancing all its threads together
+ * one char at a time. No input can make it backtrack, so it needs no timeout.
+ * <p>
+ * Matches, including the bounds of capture groups, are those {@link java.util.regex.Matcher#find()}
+ * returns: the leftmost match, preferring earlier alternatives and longer or shorter repetitions as
+ * quantifiers ask. The engine supports the syntax of {@link RegexSyntax} except for:
+ * <ul>
+ * <li>atomic groups, and possessive quantifiers other than {@code X*+} and {@code X++} on a single char or
+ * class, which are matched as {@code X*(?!X)};</li>
+ * <li>lookarounds other than on a literal or a single character class, e.g. {@code (?<=user=)} or
+ * {@code (?=\s)};</li>
+ * <li>repetitions of something that can match the empty string, e.g. {@code (a*)*} or {@code (?:a*?)+};</li>
+ * <li>capture groups inside a repetition, e.g. {@code (\w+\s?)+}, which can be written {@code (?:\w+\s?)+}
+ * unless the field is the group;</li>
+ * <li>repetitions that would compile to more than {@value #MAX_PROGRAM_SIZE} instructions.</li>
+ * </ul>
+ * Chars are matched one UTF-16 unit at a time, so a class only matches a supplementary char if it holds
+ * both its surrogates.
+ */
+public final class LinearRegex {
+    static final int MAX_PROGRAM_SIZE = 5000;
+
+    // consumes the char in arg
+    private static final int CHAR = 0;
+    // consumes a char of the CharSet in data
+    private static final int CLASS = 1;
+    // continues at arg, then at arg2 with a lower priority
+    private static final int SPLIT = 2;
+    private static final int JUMP = 3;
+    // records the position in the capture slot arg
+    private static final int SAVE = 4;
+    // continues if the Anchor.Kind in data holds
+    private static final int ASSERT = 5;
+    // continues if the Look in data holds
+    private static final int LOOK = 6;
+    private static final int MATCH = 7;
+
+    private final String regex;
+    private final int[] ops;
+    private final int[] args;
+    private final int[] args2;
+    private final Object[] data;
+    private final int groupCount;
+    private final ThreadLocal<Machine> machines = ThreadLocal.withInitial(Machine::new);
+
+    private LinearRegex(String regex, Compiler compiler, int groupCount) {
+        this.regex = regex;
+        this.ops = Arrays.copyOf(compiler.ops, compiler.size);
+        this.args = Arrays.copyOf(compiler.args, compiler.size);
+        this.args2 = Arrays.copyOf(compiler.args2, compiler.size);
+        this.data = Arrays.copyOf(compiler.data, compiler.size);
+        this.groupCount = groupCount;
+    }
+
+    /**
+     * @param regex A regular expression.
+     * @return The compiled regex.
+     * @throws UnsupportedRegexException If the regex uses a construct this engine does not support.
+     */
+    public static LinearRegex compile(String regex) throws UnsupportedRegexException {
+        RegexNode root = RegexSyntax.parse(regex);
+        Compiler compiler = new Compiler(regex);
+        compiler.emit(SAVE, 0, 0, null);
+        compiler.compile(root);
+        compiler.emit(SAVE, 1, 0, null);
+        compiler.emit(MATCH, 0, 0, null);
+        return new LinearRegex(regex, compiler, groupCount(root));
+    }
+
+    public String pattern() {
+        return regex;
+    }
+
+    /**
+     * @return The number of capture groups of the regex.
+     */
+    public int groupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Finds the first match of the regex in the input.
+     *
+     * @param input The input.
+     * @return The bounds of the match and of its groups, as start and end pairs starting with group 0, -1
+     * for groups that did not participate; or null if there is no match. The array belongs to the calling
+     * thread, and is only valid until its next call to this method.
+     */
+    public int[] find(CharSequence input) {
+        Machine machine = machines.get();
+        ThreadList current = machine.current;
+        ThreadList next = machine.next;
+        int[] start = machine.start;
+        int length = input.length();
+        boolean matched = false;
+        current.clear();
+        for (int pos = 0; ; pos++) {
+            if (!matched) {
+                // a new attempt, with the lowest priority
+                Arrays.fill(start, -1);
+                add(current, 0, pos, start, input);
+            } else if (current.size == 0) {
+                break;
+            }
+            next.clear();
+            char c = pos < length ? input.charAt(pos) : 0;
+            for (int t = 0; t < current.size; t++) {
+                int pc = current.pcs[t];
+                int[] caps = current.caps[t];
+                switch (ops[pc]) {
+                    case CHAR:
+                        if (pos < length && c == args[pc]) {
+                            add(next, pc + 1, pos + 1, caps, input);
+                        }
+                        break;
+                    case CLASS:
+                        if (pos < length && ((CharSet) data[pc]).contains(c)) {
+                            add(next, pc + 1, pos + 1, caps, input);
+                        }
+                        break;
+                    case MATCH:
+                        System.arraycopy(caps, 0, machine.match, 0, caps.length);
+                        matched = true;
+                        // threads of a lower priority cannot win anymore
+                        t = current.size;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected instruction " + ops[pc]);
+                }
+            }
+            if (pos >= length) {
+                break;
+            }
+            ThreadList swap = current;
+            current = next;
+            next = swap;
+        }
+        return matched ? machine.match : null;
+    }
+
+    // adds a thread at pc, following the instructions that do not consume a char
+    private void add(ThreadList list, int pc, int pos, int[] caps, CharSequence input) {
+        if (list.marks[pc] == list.generation) {
+            return;
+        }
+        list.marks[pc] = list.generation;
+        switch (ops[pc]) {
+            case JUMP:
+                add(list, args[pc], pos, caps, input);
+                break;
+            case SPLIT:
+                add(list, args[pc], pos, caps, input);
+                add(list, args2[pc], pos, caps, input);
+                break;
+            case SAVE:
+                int previous = caps[args[pc]];
+                caps[args[pc]] = pos;
+                add(list, pc + 1, pos, caps, input);
+                caps[args[pc]] = previous;
+                break;
+            case ASSERT:
+                if (holds((Anchor.Kind) data[pc], pos, input)) {
+                    add(list, pc + 1, pos, caps, input);
+                }
+                break;
+            case LOOK:
+                if (((Look) data[pc]).holds(pos, input)) {
+                    add(list, pc + 1, pos, caps, input);
+                }
+                break;
+            default:
+                list.pcs[list.size] = pc;
+                System.arraycopy(caps, 0, list.caps[list.size], 0, caps.length);
+                list.size++;
+        }
+    }
+
+    private static boolean holds(Anchor.Kind kind, int pos, CharSequence input) {
+        int length = input.length();
+        switch (kind) {
+            case BEGIN_INPUT:
+                return pos == 0;
+            case END_INPUT:
+                return pos == length;
+            case END_INPUT_OR_FINAL_TERMINATOR:
+                if (pos == length) {
+                    return true;
+                }
+                if (pos == length - 2) {
+                    return input.charAt(pos) == '\r' && input.charAt(pos + 1) == '\n';
+                }
+                return pos == length - 1 && CharSet.LINE_TERMINATOR.contains(input.charAt(pos))
+                        && !(input.charAt(pos) == '\n' && pos > 0 && input.charAt(pos - 1) == '\r');
+            case WORD_BOUNDARY:
+                return isWord(input, pos - 1) != isWord(input, pos);
+            case NOT_WORD_BOUNDARY:
+                return isWord(input, pos - 1) == isWord(input, pos);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isWord(CharSequence input, int index) {
+        if (index < 0 || index >= input.length()) {
+            return false;
+        }
+        char c = input.charAt(index);
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static int groupCount(RegexNode node) {
+        int count = 0;
+        if (node instanceof Sequence) {
+            for (RegexNode child : ((Sequence) node).nodes) {
+                count = Math.max(count, groupCount(child));
+            }
+        } else if (node instanceof Alternation) {
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                count = Math.max(count, groupCount(alternative));
+            }
+        } else if (node instanceof Group) {
+            count = Math.max(((Group) node).index, groupCount(((Group) node).body));
+        } else if (node instanceof Repeat) {
+            count = groupCount(((Repeat) node).body);
+        }
+        return count;
+    }
+
+    /**
+     * A lookaround on a literal or a single character class.
+     */
+    private static final class Look {
+        final String literal;
+        final CharSet set;
+        final boolean behind;
+        final boolean negative;
+
+        Look(String literal, CharSet set, boolean behind, boolean negative) {
+            this.literal = literal;
+            this.set = set;
+            this.behind = behind;
+            this.negative = negative;
+        }
+
+        boolean holds(int pos, CharSequence input) {
+            boolean found;
+            if (set != null) {
+                int index = behind ? pos - 1 : pos;
+                found = index >= 0 && index < input.length() && set.contains(input.charAt(index));
+            } else {
+                found = matches(input, behind ? pos - literal.length() : pos);
+            }
+            return found != negative;
+        }
+
+        private boolean matches(CharSequence input, int from) {
+            if (from < 0 || from + literal.length() > input.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (input.charAt(from + i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The threads of the VM at a position, in order of priority, each with the capture bounds it has
+     * recorded.
+     */
+    private final class ThreadList {
+        final int[] pcs = new int[ops.length];
+        final int[][] caps = new int[ops.length][2 * (groupCount + 1)];
+        // marks[pc] == generation if a thread at pc was already added at this position
+        final int[] marks = new int[ops.length];
+        int generation;
+        int size;
+
+        void clear() {
+            size = 0;
+            generation++;
+        }
+    }
+
+    // the state a thread reuses from one find() to the next
+    private final class Machine {
+        final ThreadList current = new ThreadList();
+        final ThreadList next = new ThreadList();
+        final int[] start = new int[2 * (groupCount + 1)];
+        final int[] match = new int[2 * (groupCount + 1)];
+    }
+
+    private static final class Compiler {
+        private final String regex;
+        int[] ops = new int[64];
+        int[] args = new int[64];
+        int[] args2 = new int[64];
+        Object[] data = new Object[64];
+        int size;
+
+        Compiler(String regex) {
+            this.regex = regex;
+        }
+
+        int emit(int op, int arg, int arg2, Object datum) throws UnsupportedRegexException {
+            if (size == MAX_PROGRAM_SIZE) {
+                throw unsupported("repetitions too large for the linear engine");
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                args = Arrays.copyOf(args, size * 2);
+                args2 = Arrays.copyOf(args2, size * 2);
+                data = Arrays.copyOf(data, size * 2);
+            }
+            ops[size] = op;
+            args[size] = arg;
+            args2[size] = arg2;
+            data[size] = datum;
+            return size++;
+        }
+
+        void compile(RegexNode node) throws UnsupportedRegexException {
+            if (node instanceof Literal) {
+                emit(CHAR, ((Literal) node).c, 0, null);
+            } else if (node instanceof CharClass) {
+                emit(CLASS, 0, 0, ((CharClass) node).set);
+            } else if (node instanceof Sequence) {
+                for (RegexNode child : ((Sequence) node).nodes) {
+                    compile(child);
+                }
+            } else if (node instanceof Alternation) {
+                compileAlternation(((Alternation) node).alternatives.toArray(new RegexNode[0]));
+            } else if (node instanceof Group) {
+                compileGroup((Group) node);
+            } else if (node instanceof Repeat) {
+                compileRepeat((Repeat) node);
+            } else if (node instanceof Anchor) {
+                emit(ASSERT, 0, 0, ((Anchor) node).kind);
+            }
+        }
+
+        private void compileAlternation(RegexNode[] alternatives) throws UnsupportedRegexException {
+            int[] jumps = new int[alternatives.length - 1];
+            for (int i = 0; i < alternatives.length - 1; i++) {
+                int split = emit(SPLIT, size + 1, 0, null);
+                compile(alternatives[i]);
+                jumps[i] = emit(JUMP, 0, 0, null);
+                args2[split] = size;
+            }
+            compile(alternatives[alternatives.length - 1]);
+            for (int jump : jumps) {
+                args[jump] = size;
+            }
+        }
+
+        private void compileGroup(Group group) throws UnsupportedRegexException {
+            switch (group.kind) {
+                case CAPTURING:
+                    emit(SAVE, 2 * group.index, 0, null);
+                    compile(group.body);
+                    emit(SAVE, 2 * group.index + 1, 0, null);
+                    break;
+                case NON_CAPTURING:
+                    compile(group.body);
+                    break;
+                case ATOMIC:
+                    throw unsupported("atomic group");
+                default:
+                    boolean behind = group.kind == Group.Kind.LOOKBEHIND || group.kind == Group.Kind.NEGATIVE_LOOKBEHIND;
+                    boolean negative = group.kind == Group.Kind.NEGATIVE_LOOKAHEAD || group.kind == Group.Kind.NEGATIVE_LOOKBEHIND;
+                    String literal = RegexNode.literalText(group.body);
+                    if (literal != null) {
+                        emit(LOOK, 0, 0, new Look(literal, null, behind, negative));
+                    } else if (group.body instanceof CharClass) {
+                        emit(LOOK, 0, 0, new Look(null, ((CharClass) group.body).set, behind, negative));
+                    } else {
+                        throw unsupported("lookaround on something else than a literal or a character class");
+                    }
+            }
+        }
+
+        private void compileRepeat(Repeat repeat) throws UnsupportedRegexException {
+            boolean greedy = repeat.mode != Repeat.Mode.LAZY;
+            CharSet possessiveSet = null;
+            if (repeat.mode == Repeat.Mode.POSSESSIVE) {
+                if (repeat.max != Repeat.UNBOUNDED || !(repeat.body instanceof Literal || repeat.body instanceof CharClass)) {
+                    throw unsupported("possessive quantifier on something else than X*+ or X++ with a single char or class");
+                }
+                possessiveSet = repeat.body instanceof Literal ? CharSet.of(((Literal) repeat.body).c) : ((CharClass) repeat.body).set;
+            }
+            if (repeat.max != 1 && PatternSafety.nullable(repeat.body)) {
+                // java.util.regex stops repeating on an empty iteration, which a Pike VM does not track: the
+                // matches and the bounds of the groups inside may differ, e.g. (?:a*?)+ on aa
+                throw unsupported("repetition of something that can match the empty string");
+            }
+            if (repeat.max != 1 && groupCount(repeat.body) > 0) {
+                // java.util.regex gives the group the bounds of the iteration its backtracking settled on,
+                // which may not be the one the Pike VM prefers
+                throw unsupported("capture group inside a repetition");
+            }
+            for (int i = 0; i < repeat.min; i++) {
+                compile(repeat.body);
+            }
+            if (repeat.max == Repeat.UNBOUNDED) {
+                // L: split body, out; body; jump L
+                int split = emit(SPLIT, 0, 0, null);
+                int body = size;
+                compile(repeat.body);
+                emit(JUMP, split, 0, null);
+                branch(split, body, size, greedy);
+                if (possessiveSet != null) {
+                    emit(LOOK, 0, 0, new Look(null, possessiveSet, false, true));
+                }
+                return;
+            }
+            // nested optional copies: (body(body)?)?
+            int[] splits = new int[repeat.max - repeat.min];
+            for (int i = 0; i < splits.length; i++) {
+                splits[i] = emit(SPLIT, 0, 0, null);
+                compile(repeat.body);
+            }
+            for (int split : splits) {
+                branch(split, split + 1, size, greedy);
+            }
+        }
+
+        private void branch(int split, int body, int out, boolean greedy) {
+            args[split] = greedy ? body : out;
+            args2[split] = greedy ? out : body;
+        }
+
+        private UnsupportedRegexException unsupported(String construct) {
+            return new UnsupportedRegexException("Unsupported regex construct (" + construct + ") in " + regex);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexNode.*;
+
+import java.util.List;
+
+/**
+ * Matches "label: value" regexes without java.util.regex. Most config regexes have the shape
+ * <pre>
+ * (?&lt;=literal)class{min,max}(?=literal)
+ * </pre>
+ * e.g. {@code (?<=\[Session ID: )\d+(?=\])}: a literal lookbehind, a repeated character class and an
+ * optional literal lookahead. Such a regex is matched with indexOf on the lookbehind literal plus a scan
+ * of the class, which avoids both the cost of lookbehind in the JDK engine and the TimeoutString wrapper.
+ * The scan is linear, so no timeout is needed.
+ * <p>
+ * {@link #compile(String)} only accepts a regex when the scan provably finds the same match as
+ * {@link java.util.regex.Matcher#find()}: the quantifier must be greedy or possessive, and the first char
+ * of the lookahead must not be in the class, so the engine could never succeed by backtracking into the
+ * repetition.
+ */
+public final class LiteralLookaroundScanner {
+    /** Returned by {@link #find(CharSequence)} when the payload needs the regex engine to decide */
+    public static final int UNDECIDED = -2;
+    private static final CharSet SURROGATES = CharSet.range(Character.MIN_SURROGATE, Character.MAX_SURROGATE);
+
+    private final String behind;
+    private final CharSet set;
+    private final int min;
+    private final int max;
+    private final String ahead;
+    private final boolean surrogatesInSet;
+
+    private LiteralLookaroundScanner(String behind, CharSet set, int min, int max, String ahead) {
+        this.behind = behind;
+        this.set = set;
+        this.min = min;
+        this.max = max;
+        this.ahead = ahead;
+        this.surrogatesInSet = set.intersects(SURROGATES);
+    }
+
+    /**
+     * @param regex A regular expression.
+     * @return A scanner equivalent to the regex, or null if the regex does not have the supported shape.
+     */
+    public static LiteralLookaroundScanner compile(String regex) {
+        RegexNode root;
+        try {
+            root = RegexSyntax.parse(regex);
+        } catch (UnsupportedRegexException e) {
+            return null;
+        }
+        if (!(root instanceof Sequence)) {
+            return null;
+        }
+        List<RegexNode> nodes = ((Sequence) root).nodes;
+        if (nodes.size() != 2 && nodes.size() != 3) {
+            return null;
+        }
+
+        String behind = lookaround(nodes.get(0), Group.Kind.LOOKBEHIND);
+        if (behind == null || !(nodes.get(1) instanceof Repeat)) {
+            return null;
+        }
+        Repeat repeat = (Repeat) nodes.get(1);
+        if (repeat.mode == Repeat.Mode.LAZY) {
+            return null;
+        }
+        CharSet set = charSet(repeat.body);
+        if (set == null) {
+            return null;
+        }
+
+        String ahead = null;
+        if (nodes.size() == 3) {
+            ahead = lookaround(nodes.get(2), Group.Kind.LOOKAHEAD);
+            // the lookahead must fail wherever the repetition could give a char back
+            if (ahead == null || set.contains(ahead.charAt(0))) {
+                return null;
+            }
+        }
+        return new LiteralLookaroundScanner(behind, set, repeat.min, repeat.max, ahead);
+    }
+
+    private static String lookaround(RegexNode node, Group.Kind kind) {
+        if (!(node instanceof Group) || ((Group) node).kind != kind) {
+            return null;
+        }
+        String text = RegexNode.literalText(((Group) node).body);
+        return text == null || text.isEmpty() ? null : text;
+    }
+
+    private static CharSet charSet(RegexNode node) {
+        if (node instanceof CharClass) {
+            return ((CharClass) node).set;
+        }
+        if (node instanceof Literal) {
+            return CharSet.of(((Literal) node).c);
+        }
+        return null;
+    }
+
+    /**
+     * Finds the first match in the payload.
+     *
+     * @param payload The payload.
+     * @return The bounds of the match, to be read with {@link #start(long)} and {@link #end(long)}; -1 if
+     * there is no match, or {@link #UNDECIDED} if the class admits surrogates and the run reached one, as
+     * java.util.regex matches supplementary code points as a whole.
+     */
+    public long find(CharSequence payload) {
+        return find(payload, 0);
+    }
+
+    /**
+     * Finds the first match in the payload whose value starts at or after from.
+     */
+    public long find(CharSequence payload, int from) {
+        int length = payload.length();
+        int index = indexOf(payload, behind, Math.max(0, from - behind.length()));
+        while (index >= 0) {
+            int start = index + behind.length();
+            int limit = max == Repeat.UNBOUNDED ? length : (int) Math.min(length, (long) start + max);
+            int end = start;
+            while (end < limit && set.contains(payload.charAt(end))) {
+                if (surrogatesInSet && Character.isSurrogate(payload.charAt(end))) {
+                    return UNDECIDED;
+                }
+                end++;
+            }
+            if (end - start >= min && (ahead == null || regionMatches(payload, end, ahead))) {
+                return ((long) start << 32) | end;
+            }
+            index = indexOf(payload, behind, index + 1);
+        }
+        return -1;
+    }
+
+    public static int start(long bounds) {
+        return (int) (bounds >>> 32);
+    }
+
+    public static int end(long bounds) {
+        return (int) bounds;
+    }
+
+    static int indexOf(CharSequence s, String literal, int from) {
+        if (s instanceof String) {
+            return ((String) s).indexOf(literal, from);
+        }
+        char first = literal.charAt(0);
+        int last = s.length() - literal.length();
+        for (int i = Math.max(0, from); i <= last; i++) {
+            if (s.charAt(i) == first && regionMatches(s, i, literal)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static boolean regionMatches(CharSequence s, int offset, String literal) {
+        if (s instanceof String) {
+            return ((String) s).startsWith(literal, offset);
+        }
+        if (offset + literal.length() > s.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (s.charAt(offset + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, least-recently-used cache of compiled Patterns keyed by regex and flags. Compiling a
+ * Pattern is far more expensive than matching it, so parsers should look Patterns up here instead
+ * of compiling them per event. Hit, miss and eviction counters are kept so that the cache size can
+ * be tuned for connectors that load many configs.
+ */
+public class PatternCache {
+    static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final int maxSize;
+    private final Map<Key, Pattern> patterns;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PatternCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize The maximum number of Patterns kept; the least recently used one is evicted
+     *                when it is exceeded.
+     */
+    public PatternCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be positive, got " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.patterns = new LinkedHashMap<Key, Pattern>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+                if (size() > PatternCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled Pattern for the regex, compiling it on a miss.
+     *
+     * @param regex The regular expression.
+     * @return The compiled Pattern.
+     * @throws java.util.regex.PatternSyntaxException If the regex is invalid.
+     */
+    public Pattern get(String regex) {
+        return get(regex, 0);
+    }
+
+    /**
+     * Returns the compiled Pattern for the regex and flags, compiling it on a miss.
+     *
+     * @param regex The regular expression.
+     * @param flags The flags to pass to {@link Pattern#compile(String, int)}.
+     * @return The compiled Pattern.
+     * @throws java.util.regex.PatternSyntaxException If the regex is invalid.
+     */
+    public Pattern get(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        Pattern pattern;
+        synchronized (patterns) {
+            pattern = patterns.get(key);
+        }
+        if (pattern != null) {
+            hits.incrementAndGet();
+            return pattern;
+        }
+
+        misses.incrementAndGet();
+        // compile outside of the lock, a racing miss on the same key only costs a redundant compile
+        pattern = Pattern.compile(regex, flags);
+        synchronized (patterns) {
+            Pattern existing = patterns.putIfAbsent(key, pattern);
+            return existing != null ? existing : pattern;
+        }
+    }
+
+    public int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public void clear() {
+        synchronized (patterns) {
+            patterns.clear();
+        }
+    }
+
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+        private final int hash;
+
+        private Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+            this.hash = 31 * regex.hashCode() + flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return flags == other.flags && regex.equals(other.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexNode.*;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides whether java.util.regex runs a regex in time linear in the length of the input, so that
+ * {@link RegexExecutor} can match it without the TimeoutString wrapper. A regex is linear when:
+ * <ul>
+ * <li>each match attempt is linear: no repetition can give back chars that what follows it could
+ * consume, i.e. the first chars of the body of every greedy or lazy repetition are disjoint from the chars
+ * that may follow it, and alternatives inside a repetition start with disjoint chars. This rules out the
+ * nested and adjacent quantifiers behind catastrophic backtracking, e.g. {@code (\w+)+} or
+ * {@code \d+\d+x};</li>
+ * <li>and the attempts {@link java.util.regex.Matcher#find()} makes from successive positions do not
+ * scan the same chars over and over: the regex is anchored at the beginning of the input, or starts with
+ * a literal, possibly in a lookbehind, one char of which no unbounded repetition matches. Every attempt
+ * that gets past the literal then stops before the next occurrence of that char.</li>
+ * </ul>
+ * The analysis is conservative: a regex it cannot parse, or cannot prove linear, is not.
+ */
+public final class PatternSafety {
+
+    private PatternSafety() {
+    }
+
+    /**
+     * @param regex A regular expression, compiled without flags.
+     * @return Whether matching the regex is linear in the length of the input.
+     */
+    public static boolean isLinear(String regex) {
+        RegexNode root;
+        try {
+            root = RegexSyntax.parse(regex);
+        } catch (UnsupportedRegexException e) {
+            return false;
+        }
+        return isLinearPerAttempt(root, CharSet.EMPTY, false) && isLinearAcrossAttempts(root);
+    }
+
+    /**
+     * @param follow The chars that may follow the node; empty at the end of the regex, where a match
+     *               succeeds without backtracking.
+     * @param inLoop Whether the node is repeated, so that a choice between alternatives is made again at
+     *               every iteration.
+     */
+    private static boolean isLinearPerAttempt(RegexNode node, CharSet follow, boolean inLoop) {
+        if (node instanceof Sequence) {
+            List<RegexNode> nodes = ((Sequence) node).nodes;
+            CharSet next = follow;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                RegexNode child = nodes.get(i);
+                if (!isLinearPerAttempt(child, next, inLoop)) {
+                    return false;
+                }
+                next = nullable(child) ? first(child).union(next) : first(child);
+            }
+            return true;
+        }
+        if (node instanceof Alternation) {
+            CharSet seen = CharSet.EMPTY;
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                if (!isLinearPerAttempt(alternative, follow, inLoop)) {
+                    return false;
+                }
+                CharSet firstChars = first(alternative);
+                if (inLoop && (nullable(alternative) || seen.intersects(firstChars))) {
+                    return false;
+                }
+                seen = seen.union(firstChars);
+            }
+            return true;
+        }
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            // a lookaround is matched on its own, and ends where its body succeeds
+            return isLinearPerAttempt(group.body, group.kind.isLookaround() ? CharSet.EMPTY : follow, inLoop);
+        }
+        if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            if (repeat.max == 1) {
+                return isLinearPerAttempt(repeat.body, follow, inLoop);
+            }
+            CharSet firstChars = first(repeat.body);
+            if (nullable(repeat.body)) {
+                return false;
+            }
+            if (repeat.mode != Repeat.Mode.POSSESSIVE && firstChars.intersects(follow)) {
+                return false;
+            }
+            return isLinearPerAttempt(repeat.body, firstChars.union(follow), true);
+        }
+        return true;
+    }
+
+    static boolean isLinearAcrossAttempts(RegexNode root) {
+        if (root instanceof Alternation) {
+            for (RegexNode alternative : ((Alternation) root).alternatives) {
+                if (!isLinearAcrossAttempts(alternative)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        CharSet repeated = unboundedRepeats(root);
+        if (repeated.isEmpty()) {
+            // every attempt stops after a number of chars bounded by the regex
+            return true;
+        }
+        RegexNode head = root instanceof Sequence && !((Sequence) root).nodes.isEmpty()
+                ? ((Sequence) root).nodes.get(0) : root;
+        if (head instanceof Anchor && ((Anchor) head).kind == Anchor.Kind.BEGIN_INPUT) {
+            return true;
+        }
+        String prefix = leadingLiteral(root);
+        if (prefix == null) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (!repeated.contains(prefix.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the literal a regex starts with, in a lookbehind or not, or null if it does not start with one
+    private static String leadingLiteral(RegexNode root) {
+        List<RegexNode> nodes = root instanceof Sequence ? ((Sequence) root).nodes : Collections.singletonList(root);
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        RegexNode head = nodes.get(0);
+        if (head instanceof Group && ((Group) head).kind == Group.Kind.LOOKBEHIND) {
+            return RegexNode.literalText(((Group) head).body);
+        }
+        StringBuilder literal = new StringBuilder();
+        for (RegexNode node : nodes) {
+            if (!(node instanceof Literal)) {
+                break;
+            }
+            literal.append(((Literal) node).c);
+        }
+        return literal.length() > 0 ? literal.toString() : null;
+    }
+
+    // the chars matched by the bodies of the unbounded repetitions of a node
+    private static CharSet unboundedRepeats(RegexNode node) {
+        if (node instanceof Sequence) {
+            CharSet chars = CharSet.EMPTY;
+            for (RegexNode child : ((Sequence) node).nodes) {
+                chars = chars.union(unboundedRepeats(child));
+            }
+            return chars;
+        }
+        if (node instanceof Alternation) {
+            CharSet chars = CharSet.EMPTY;
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                chars = chars.union(unboundedRepeats(alternative));
+            }
+            return chars;
+        }
+        if (node instanceof Group) {
+            return unboundedRepeats(((Group) node).body);
+        }
+        if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            CharSet inner = unboundedRepeats(repeat.body);
+            return repeat.max == Repeat.UNBOUNDED ? inner.union(chars(repeat.body)) : inner;
+        }
+        return CharSet.EMPTY;
+    }
+
+    // all the chars a node may consume
+    private static CharSet chars(RegexNode node) {
+        if (node instanceof Literal) {
+            return CharSet.of(((Literal) node).c);
+        }
+        if (node instanceof CharClass) {
+            return ((CharClass) node).set;
+        }
+        if (node instanceof Sequence) {
+            CharSet chars = CharSet.EMPTY;
+            for (RegexNode child : ((Sequence) node).nodes) {
+                chars = chars.union(chars(child));
+            }
+            return chars;
+        }
+        if (node instanceof Alternation) {
+            CharSet chars = CharSet.EMPTY;
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                chars = chars.union(chars(alternative));
+            }
+            return chars;
+        }
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            return group.kind.isLookaround() ? CharSet.EMPTY : chars(group.body);
+        }
+        if (node instanceof Repeat) {
+            return chars(((Repeat) node).body);
+        }
+        return CharSet.EMPTY;
+    }
+
+    // the chars a match of the node may start with; lookaheads count, to stay conservative
+    static CharSet first(RegexNode node) {
+        if (node instanceof Literal) {
+            return CharSet.of(((Literal) node).c);
+        }
+        if (node instanceof CharClass) {
+            return ((CharClass) node).set;
+        }
+        if (node instanceof Sequence) {
+            CharSet chars = CharSet.EMPTY;
+            for (RegexNode child : ((Sequence) node).nodes) {
+                chars = chars.union(first(child));
+                if (!nullable(child)) {
+                    break;
+                }
+            }
+            return chars;
+        }
+        if (node instanceof Alternation) {
+            CharSet chars = CharSet.EMPTY;
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                chars = chars.union(first(alternative));
+            }
+            return chars;
+        }
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            boolean behind = group.kind == Group.Kind.LOOKBEHIND || group.kind == Group.Kind.NEGATIVE_LOOKBEHIND;
+            return behind ? CharSet.EMPTY : first(group.body);
+        }
+        if (node instanceof Repeat) {
+            return first(((Repeat) node).body);
+        }
+        return CharSet.EMPTY;
+    }
+
+    // whether the node may match without consuming a char
+    static boolean nullable(RegexNode node) {
+        if (node instanceof Literal || node instanceof CharClass) {
+            return false;
+        }
+        if (node instanceof Sequence) {
+            for (RegexNode child : ((Sequence) node).nodes) {
+                if (!nullable(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Alternation) {
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                if (nullable(alternative)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            return group.kind.isLookaround() || nullable(group.body);
+        }
+        if (node instanceof Repeat) {
+            return ((Repeat) node).min == 0 || nullable(((Repeat) node).body);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexNode.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Checks config regexes for catastrophic backtracking (ReDoS) when a config is loaded.
+ * <p>
+ * {@link #harden(String)} makes greedy quantifiers possessive where that provably does not change any
+ * match: the repeated body is a single char or class, none of whose chars may follow the repetition, and
+ * no assertion stands between them. Giving back a char could then never let the rest of the regex match,
+ * so the backtracking a possessive quantifier skips was bound to fail.
+ * <p>
+ * {@link #worstCaseDegree(String)} estimates the worst-case matching time of a regex on an input of n chars
+ * as a power of n. Each greedy or lazy unbounded repetition that overlaps what follows it multiplies the
+ * number of ways a match attempt can split the input by n; an ambiguous repetition inside another one makes
+ * that number exponential.
+ */
+public final class RegexAnalyzer {
+    /** The degree of regexes whose matching time may be exponential in the length of the input */
+    public static final int EXPONENTIAL = Integer.MAX_VALUE;
+    /** The degree of regexes that cannot be analyzed, e.g. because they use back-references */
+    public static final int UNKNOWN = 0;
+
+    private RegexAnalyzer() {
+    }
+
+    /**
+     * @param regex A regular expression, compiled without flags.
+     * @return An equivalent regex in which the greedy quantifiers that cannot usefully backtrack are
+     * possessive; the regex itself if there is none, or if it cannot be analyzed.
+     */
+    public static String harden(String regex) {
+        RegexNode root;
+        try {
+            root = RegexSyntax.parse(regex);
+        } catch (UnsupportedRegexException e) {
+            return regex;
+        }
+        List<Integer> positions = new ArrayList<>();
+        harden(root, CharSet.EMPTY, false, positions);
+        if (positions.isEmpty()) {
+            return regex;
+        }
+        StringBuilder hardened = new StringBuilder(regex);
+        positions.sort(null);
+        for (int i = positions.size() - 1; i >= 0; i--) {
+            hardened.insert((int) positions.get(i), '+');
+        }
+        return hardened.toString();
+    }
+
+    /**
+     * @param follow   The chars that may follow the node.
+     * @param asserted Whether an assertion may stand between the node and those chars, which could then
+     *                 depend on where the node ends rather than on the chars alone.
+     */
+    private static void harden(RegexNode node, CharSet follow, boolean asserted, List<Integer> positions) {
+        if (node instanceof Sequence) {
+            List<RegexNode> nodes = ((Sequence) node).nodes;
+            CharSet next = follow;
+            boolean nextAsserted = asserted;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                RegexNode child = nodes.get(i);
+                harden(child, next, nextAsserted, positions);
+                boolean childAsserted = hasAssertion(child);
+                if (PatternSafety.nullable(child)) {
+                    next = PatternSafety.first(child).union(next);
+                    nextAsserted |= childAsserted;
+                } else {
+                    next = PatternSafety.first(child);
+                    nextAsserted = childAsserted;
+                }
+            }
+        } else if (node instanceof Alternation) {
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                harden(alternative, follow, asserted, positions);
+            }
+        } else if (node instanceof Group) {
+            Group group = (Group) node;
+            // the body of a lookbehind must end exactly where it is, which acts as an assertion
+            if (!group.kind.isLookaround()) {
+                harden(group.body, follow, asserted, positions);
+            }
+        } else if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            CharSet chars = singleChar(repeat.body);
+            if (chars == null) {
+                boolean loops = repeat.max != 1;
+                harden(repeat.body, loops ? PatternSafety.first(repeat.body).union(follow) : follow,
+                        asserted || loops && hasAssertion(repeat.body), positions);
+            } else if (repeat.mode == Repeat.Mode.GREEDY && repeat.min != repeat.max && !asserted
+                    && !chars.intersects(follow)) {
+                positions.add(repeat.end);
+            }
+        }
+    }
+
+    /**
+     * @param regex A regular expression, compiled without flags.
+     * @return The estimated degree k of the worst-case matching time of the regex, O(n^k) for an input of n
+     * chars; {@link #EXPONENTIAL} or {@link #UNKNOWN}.
+     */
+    public static int worstCaseDegree(String regex) {
+        RegexNode root;
+        try {
+            root = RegexSyntax.parse(regex);
+        } catch (UnsupportedRegexException e) {
+            return UNKNOWN;
+        }
+        // the unbounded repetitions by position in the regex, each with whether it is ambiguous
+        TreeMap<Integer, Boolean> repetitions = new TreeMap<>();
+        if (!collect(root, CharSet.EMPTY, repetitions)) {
+            return EXPONENTIAL;
+        }
+        // each ambiguous repetition multiplies the ways to split the input by n, and a repetition that
+        // follows one of them may scan the rest of the input for each of those ways
+        int ambiguous = 0;
+        boolean scansAfter = false;
+        for (boolean isAmbiguous : repetitions.values()) {
+            if (isAmbiguous) {
+                ambiguous++;
+            } else if (ambiguous > 0) {
+                scansAfter = true;
+            }
+        }
+        int perAttempt = Math.max(1, ambiguous + (scansAfter ? 1 : 0));
+        return PatternSafety.isLinearAcrossAttempts(root) ? perAttempt : perAttempt + 1;
+    }
+
+    /**
+     * Collects the unbounded repetitions outside of repetitions.
+     *
+     * @return False if a repetition may backtrack exponentially.
+     */
+    private static boolean collect(RegexNode node, CharSet follow, TreeMap<Integer, Boolean> repetitions) {
+        if (node instanceof Sequence) {
+            List<RegexNode> nodes = ((Sequence) node).nodes;
+            CharSet next = follow;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                RegexNode child = nodes.get(i);
+                if (!collect(child, next, repetitions)) {
+                    return false;
+                }
+                next = PatternSafety.nullable(child) ? PatternSafety.first(child).union(next) : PatternSafety.first(child);
+            }
+            return true;
+        }
+        if (node instanceof Alternation) {
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                if (!collect(alternative, follow, repetitions)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            return collect(group.body, group.kind.isLookaround() ? CharSet.EMPTY : follow, repetitions);
+        }
+        if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            if (repeat.max == 1) {
+                return collect(repeat.body, follow, repetitions);
+            }
+            CharSet chars = PatternSafety.first(repeat.body);
+            // the body must be unambiguous about where each iteration ends
+            if (PatternSafety.nullable(repeat.body) || !isUnambiguous(repeat.body, chars.union(follow))) {
+                return repeat.max != Repeat.UNBOUNDED;
+            }
+            if (repeat.max == Repeat.UNBOUNDED) {
+                repetitions.put(repeat.end, repeat.mode != Repeat.Mode.POSSESSIVE && chars.intersects(follow));
+            }
+            return true;
+        }
+        return true;
+    }
+
+    // whether a repeated body matches each iteration in a single way
+    private static boolean isUnambiguous(RegexNode body, CharSet follow) {
+        TreeMap<Integer, Boolean> inner = new TreeMap<>();
+        if (!collect(body, follow, inner) || inner.containsValue(true)) {
+            return false;
+        }
+        return !hasOverlappingAlternatives(body);
+    }
+
+    private static boolean hasOverlappingAlternatives(RegexNode node) {
+        if (node instanceof Sequence) {
+            for (RegexNode child : ((Sequence) node).nodes) {
+                if (hasOverlappingAlternatives(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (node instanceof Alternation) {
+            CharSet seen = CharSet.EMPTY;
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                CharSet chars = PatternSafety.first(alternative);
+                if (PatternSafety.nullable(alternative) || seen.intersects(chars) || hasOverlappingAlternatives(alternative)) {
+                    return true;
+                }
+                seen = seen.union(chars);
+            }
+            return false;
+        }
+        if (node instanceof Group) {
+            return hasOverlappingAlternatives(((Group) node).body);
+        }
+        if (node instanceof Repeat) {
+            return hasOverlappingAlternatives(((Repeat) node).body);
+        }
+        return false;
+    }
+
+    /**
+     * @return A description of a degree, e.g. O(n^2).
+     */
+    public static String describe(int degree) {
+        if (degree == EXPONENTIAL) {
+            return "exponential";
+        }
+        if (degree == UNKNOWN) {
+            return "unknown";
+        }
+        return degree == 1 ? "O(n)" : "O(n^" + degree + ")";
+    }
+
+    // the chars of a body that matches a single char, or null
+    private static CharSet singleChar(RegexNode node) {
+        if (node instanceof Literal) {
+            return CharSet.of(((Literal) node).c);
+        }
+        if (node instanceof CharClass) {
+            return ((CharClass) node).set;
+        }
+        return null;
+    }
+
+    // whether the node holds an assertion other than a positive lookahead, whose chars are in first()
+    private static boolean hasAssertion(RegexNode node) {
+        if (node instanceof Anchor) {
+            return true;
+        }
+        if (node instanceof Sequence) {
+            for (RegexNode child : ((Sequence) node).nodes) {
+                if (hasAssertion(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (node instanceof Alternation) {
+            for (RegexNode alternative : ((Alternation) node).alternatives) {
+                if (hasAssertion(alternative)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (node instanceof Group) {
+            Group group = (Group) node;
+            return group.kind.isLookaround() && group.kind != Group.Kind.LOOKAHEAD || hasAssertion(group.body);
+        }
+        if (node instanceof Repeat) {
+            return hasAssertion(((Repeat) node).body);
+        }
+        return false;
+    }
+}
@@ -11,6 +11,11 @@ package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,9 +26,19 @@ import java.util.regex.Pattern;
  */
 public class RegexExecutor {
     static final long DEFAULT_TIMEOUT_MICRO = 1000;
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
     private static final boolean DEFAULT_TIMING = true;
 
+    // bounds the Matchers a thread keeps, in case Patterns keep being created
+    private static final int MAX_MATCHERS_PER_THREAD = 256;
+
     private static final Logger logger = LogManager.getLogger(RegexExecutor.class);
+    private static final ThreadLocal<Context> contexts = ThreadLocal.withInitial(Context::new);
+    private static final int MAX_PROFILES = 4096;
+    // the consecutive matches over the timeout that demote a trusted Pattern, so that a single one slowed
+    // down by a GC pause does not
+    private static final int MAX_OVERRUNS = 3;
+    private static final ConcurrentMap<Pattern, PatternProfile> profiles = new ConcurrentHashMap<>();
 
     /**
      * Creates a Matcher object from the supplied Pattern and source String, and then calls
@@ -53,25 +68,183 @@ public class RegexExecutor {
     public RegexResult find(Pattern p, String source, int startIndex, long timeout, boolean timing) {
         long current = System.nanoTime();
         Matcher m = p.matcher(new TimeoutString(source, current + (timeout * 1000)));
+        return find(m, source, startIndex, timeout, timing, current, new RegexResult());
+    }
+
+    /**
+     * Like {@link #find(Pattern, String)}, but reuses the Matcher, TimeoutString and RegexResult of the
+     * calling thread instead of creating them, so that a match does not allocate. Patterns that
+     * are {@link #isTrusted(Pattern) trusted} are matched without the TimeoutString, and a match of them that
+     * ends past the deadline of {@link #setDeadline(long)} is reported as timed out. The returned
+     * RegexResult and its Matcher belong to the thread: they are only valid until its next call to this
+     * method.
+     *
+     * @param p      The Pattern to attempt to match.
+     * @param source The String to attempt the match on.
+     * @return A RegexResult containing all relevant attributes of the regex match
+     */
+    public RegexResult findReusing(Pattern p, String source) {
+        return contexts.get().find(p, source, 0);
+    }
+
+    /**
+     * Like {@link #findReusing(Pattern, String)}, but begins the find() at an index of the source, which
+     * may be any CharSequence, e.g. a view of part of a payload. Lookbehinds still see the chars before the
+     * index.
+     *
+     * @param p          The Pattern to attempt to match.
+     * @param source     The chars to attempt the match on.
+     * @param startIndex The index within the source to begin the find() from.
+     * @return A RegexResult containing all relevant attributes of the regex match
+     */
+    public RegexResult findReusing(Pattern p, CharSequence source, int startIndex) {
+        return contexts.get().find(p, source, startIndex);
+    }
+
+    /**
+     * Sets a deadline shared by all the matches {@link #findReusing(Pattern, String)} runs on the calling
+     * thread, e.g. to bound the time all the fields of a record take. Each match still stops after its own
+     * timeout, and matches started past the deadline time out at once.
+     *
+     * @param deadlineNanos The deadline, as a {@link System#nanoTime()} value, or {@link #NO_DEADLINE}.
+     * @return The previous deadline of the thread, to restore it afterwards.
+     */
+    public static long setDeadline(long deadlineNanos) {
+        Context context = contexts.get();
+        long previous = context.deadline;
+        context.deadline = deadlineNanos;
+        return previous;
+    }
+
+    private static RegexResult find(Matcher m, CharSequence source, int startIndex, long timeout, boolean timing,
+                                    long current, RegexResult result) {
         try {
             boolean matched = m.find(startIndex);
-            if (timing) {
-                return new RegexResult(m, matched, System.nanoTime() - current);
-            } else {
-                return new RegexResult(m, matched);
-            }
+            return result.reset(m, matched, timing ? System.nanoTime() - current : -1L, false);
         } catch (RegexTimeoutException e) {
             logger.debug(
                     "Regex [{}] took >={} microseconds to match against String [{}]",
-                    p.pattern(),
+                    m.pattern().pattern(),
                     timeout,
                     source,
                     e);
-            if (timing) {
-                return new RegexResult(timeout, true);
-            } else {
-                return new RegexResult(true);
+            return result.reset(null, false, timing ? timeout : -1L, true);
+        }
+    }
+
+    /**
+     * Returns whether {@link #findReusing(Pattern, String)} matches a Pattern directly against the source
+     * String: {@link PatternSafety} found it linear, and its matches have not repeatedly taken longer than
+     * the timeout they skipped.
+     */
+    public static boolean isTrusted(Pattern p) {
+        return profile(p).isTrusted();
+    }
+
+    private static PatternProfile profile(Pattern p) {
+        PatternProfile profile = profiles.get(p);
+        if (profile == null) {
+            if (profiles.size() >= MAX_PROFILES) {
+                // Patterns that keep being created, rather than coming from a PatternCache; demotions are kept
+                profiles.values().removeIf(PatternProfile::isTrusted);
+                if (profiles.size() >= MAX_PROFILES) {
+                    profiles.clear();
+                }
+            }
+            boolean linear = p.flags() == 0 && PatternSafety.isLinear(p.pattern());
+            PatternProfile existing = profiles.putIfAbsent(p, profile = new PatternProfile(linear));
+            profile = existing != null ? existing : profile;
+        }
+        return profile;
+    }
+
+    /**
+     * How a Pattern is matched, shared by all threads. Trusted Patterns are run directly against the source
+     * String, which spares the engine the TimeoutString wrapper and its check on every char; one that is
+     * nonetheless seen to exceed its timeout on {@link #MAX_OVERRUNS} consecutive matches goes back under the
+     * wrapper for good.
+     */
+    private static final class PatternProfile {
+        private final boolean linear;
+        private volatile boolean demoted;
+        private final AtomicInteger overruns = new AtomicInteger();
+
+        PatternProfile(boolean linear) {
+            this.linear = linear;
+        }
+
+        boolean isTrusted() {
+            return linear && !demoted;
+        }
+
+        void observe(Pattern p, long durationNanos) {
+            if (durationNanos <= DEFAULT_TIMEOUT_MICRO * 1000) {
+                if (overruns.get() != 0) {
+                    overruns.set(0);
+                }
+            } else if (overruns.incrementAndGet() >= MAX_OVERRUNS && !demoted) {
+                demoted = true;
+                logger.info("Regex [{}] took {} microseconds to match, it will be matched with a timeout from now on",
+                        p.pattern(), durationNanos / 1000);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The objects a thread reuses from one match to the next: Matchers for each Pattern, those with a
+     * timeout all over the same TimeoutString, and a single RegexResult.
+     */
+    private static final class Context {
+        private final TimeoutString input = new TimeoutString("", 0);
+        private final RegexResult result = new RegexResult();
+        private long deadline = NO_DEADLINE;
+        private final Map<Pattern, Matchers> matchers = new LinkedHashMap<Pattern, Matchers>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Pattern, Matchers> eldest) {
+                return size() > MAX_MATCHERS_PER_THREAD;
+            }
+        };
+
+        RegexResult find(Pattern p, CharSequence source, int startIndex) {
+            long current = System.nanoTime();
+            // nanoTime() may be negative, which would overflow a subtraction from NO_DEADLINE
+            long remaining = deadline == NO_DEADLINE ? Long.MAX_VALUE : deadline - current;
+            if (remaining <= 0) {
+                return result.reset(null, false, DEFAULT_TIMING ? 0 : -1L, true);
+            }
+            Matchers entry = matchers.get(p);
+            if (entry == null) {
+                entry = new Matchers(profile(p));
+                matchers.put(p, entry);
+            }
+            long timeoutNanos = Math.min(DEFAULT_TIMEOUT_MICRO * 1000, remaining);
+            if (entry.profile.isTrusted()) {
+                Matcher m = entry.direct == null ? entry.direct = p.matcher(source) : entry.direct.reset(source);
+                boolean matched = m.find(startIndex);
+                long end = System.nanoTime();
+                // measured against the Pattern's own timeout, not the part of the deadline that was left
+                entry.profile.observe(p, end - current);
+                if (deadline != NO_DEADLINE && end - deadline >= 0) {
+                    return result.reset(null, false, DEFAULT_TIMING ? end - current : -1L, true);
+                }
+                return result.reset(m, matched, DEFAULT_TIMING ? end - current : -1L, false);
+            }
+            input.reset(source, current + timeoutNanos);
+            // the input has a new length, which reset() picks up as the matcher's region
+            Matcher m = entry.timed == null ? entry.timed = p.matcher(input) : entry.timed.reset(input);
+            return RegexExecutor.find(m, source, startIndex, timeoutNanos / 1000, DEFAULT_TIMING, current, result);
+        }
+    }
+
+    private static final class Matchers {
+        final PatternProfile profile;
+        // over the source, for trusted Patterns
+        Matcher direct;
+        // over the TimeoutString
+        Matcher timed;
+
+        Matchers(PatternProfile profile) {
+            this.profile = profile;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A node of the syntax tree of a regex, as built by {@link RegexSyntax#parse(String)}. The tree lets
+ * config regexes be analyzed, and in simple cases matched, without going through java.util.regex.
+ */
+public abstract class RegexNode {
+
+    private RegexNode() {
+    }
+
+    /**
+     * A single char; consecutive chars are kept as consecutive nodes of a {@link Sequence}.
+     */
+    public static final class Literal extends RegexNode {
+        public final char c;
+
+        Literal(char c) {
+            this.c = c;
+        }
+    }
+
+    /**
+     * A character class, including escapes such as {@code \d} and the {@code .} wildcard.
+     */
+    public static final class CharClass extends RegexNode {
+        public final CharSet set;
+
+        CharClass(CharSet set) {
+            this.set = set;
+        }
+    }
+
+    public static final class Sequence extends RegexNode {
+        public final List<RegexNode> nodes;
+
+        Sequence(List<RegexNode> nodes) {
+            this.nodes = Collections.unmodifiableList(nodes);
+        }
+    }
+
+    public static final class Alternation extends RegexNode {
+        public final List<RegexNode> alternatives;
+
+        Alternation(List<RegexNode> alternatives) {
+            this.alternatives = Collections.unmodifiableList(alternatives);
+        }
+    }
+
+    public static final class Group extends RegexNode {
+        public enum Kind {
+            CAPTURING, NON_CAPTURING, ATOMIC, LOOKAHEAD, NEGATIVE_LOOKAHEAD, LOOKBEHIND, NEGATIVE_LOOKBEHIND;
+
+            public boolean isLookaround() {
+                return this == LOOKAHEAD || this == NEGATIVE_LOOKAHEAD || this == LOOKBEHIND || this == NEGATIVE_LOOKBEHIND;
+            }
+        }
+
+        public final Kind kind;
+        public final RegexNode body;
+        /** The group number of a capturing group, otherwise 0 */
+        public final int index;
+
+        Group(Kind kind, RegexNode body, int index) {
+            this.kind = kind;
+            this.body = body;
+            this.index = index;
+        }
+    }
+
+    public static final class Repeat extends RegexNode {
+        public enum Mode {GREEDY, LAZY, POSSESSIVE}
+
+        public static final int UNBOUNDED = -1;
+
+        public final RegexNode body;
+        public final int min;
+        /** The maximum number of repetitions, or {@link #UNBOUNDED} */
+        public final int max;
+        public final Mode mode;
+        /** The index in the regex right after the quantifier, before its mode, e.g. to rewrite the mode */
+        public final int end;
+
+        Repeat(RegexNode body, int min, int max, Mode mode, int end) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+            this.mode = mode;
+            this.end = end;
+        }
+    }
+
+    public static final class Anchor extends RegexNode {
+        public enum Kind {
+            /** {@code ^} or {@code \A} without the MULTILINE flag */
+            BEGIN_INPUT,
+            /** {@code $} or {@code \Z}: the end of input, or before a final line terminator */
+            END_INPUT_OR_FINAL_TERMINATOR,
+            /** {@code \z} */
+            END_INPUT,
+            WORD_BOUNDARY,
+            NOT_WORD_BOUNDARY
+        }
+
+        public final Kind kind;
+
+        Anchor(Kind kind) {
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * Returns the text of the node if it only matches a fixed string, e.g. the body of a lookbehind such as
+     * {@code \[Session ID: }.
+     *
+     * @param node A node.
+     * @return The string the node matches, or null if it can match anything else.
+     */
+    public static String literalText(RegexNode node) {
+        if (node instanceof Literal) {
+            return String.valueOf(((Literal) node).c);
+        }
+        if (node instanceof Sequence) {
+            StringBuilder text = new StringBuilder();
+            for (RegexNode child : ((Sequence) node).nodes) {
+                if (!(child instanceof Literal)) {
+                    return null;
+                }
+                text.append(((Literal) child).c);
+            }
+            return text.toString();
+        }
+        return null;
+    }
+}
@@ -38,6 +38,20 @@ public class RegexResult {
         this.setTimedOut(timedOut);
     }
 
+    RegexResult() {
+    }
+
+    /**
+     * Overwrites all the attributes, so that a single instance can hold the successive results of a thread.
+     */
+    RegexResult reset(Matcher m, boolean matched, long duration, boolean timedOut) {
+        this.setMatcher(m);
+        this.setMatched(matched);
+        this.setDuration(duration);
+        this.setTimedOut(timedOut);
+        return this;
+    }
+
     public Matcher getMatcher() {
         return matcher;
     }
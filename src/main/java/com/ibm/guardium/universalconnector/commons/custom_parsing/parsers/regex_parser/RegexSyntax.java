@@ -0,0 +1,449 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexNode.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a regex into a tree of {@link RegexNode}s, following the java.util.regex syntax for a Pattern
+ * compiled without flags. Only the constructs config regexes commonly use are modelled; anything else,
+ * e.g. back-references, inline flags or Unicode properties, is rejected with an
+ * {@link UnsupportedRegexException}, so that callers can fall back to java.util.regex.
+ */
+public final class RegexSyntax {
+    private final String regex;
+    private int pos;
+    private int groupCount;
+
+    private RegexSyntax(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * @param regex A regular expression.
+     * @return The root of its syntax tree.
+     * @throws UnsupportedRegexException If the regex uses a construct that is not modelled, or is invalid.
+     */
+    public static RegexNode parse(String regex) throws UnsupportedRegexException {
+        RegexSyntax syntax = new RegexSyntax(regex);
+        RegexNode root = syntax.alternation();
+        if (syntax.pos < regex.length()) {
+            throw syntax.unsupported("unbalanced ')'");
+        }
+        return root;
+    }
+
+    private RegexNode alternation() throws UnsupportedRegexException {
+        List<RegexNode> alternatives = new ArrayList<>();
+        alternatives.add(sequence());
+        while (pos < regex.length() && regex.charAt(pos) == '|') {
+            pos++;
+            alternatives.add(sequence());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+    }
+
+    private RegexNode sequence() throws UnsupportedRegexException {
+        List<RegexNode> nodes = new ArrayList<>();
+        while (pos < regex.length()) {
+            char c = regex.charAt(pos);
+            if (c == '|' || c == ')') {
+                break;
+            }
+            if (c == '\\' && regex.startsWith("\\Q", pos)) {
+                quoted(nodes);
+                continue;
+            }
+            RegexNode atom = atom();
+            nodes.add(quantifier(atom));
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new Sequence(nodes);
+    }
+
+    private RegexNode atom() throws UnsupportedRegexException {
+        char c = regex.charAt(pos++);
+        switch (c) {
+            case '(':
+                return group();
+            case '[':
+                return new CharClass(charClass());
+            case '.':
+                return new CharClass(CharSet.DOT);
+            case '^':
+                return new Anchor(Anchor.Kind.BEGIN_INPUT);
+            case '$':
+                return new Anchor(Anchor.Kind.END_INPUT_OR_FINAL_TERMINATOR);
+            case '\\':
+                return escape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw unsupported("dangling quantifier");
+            default:
+                return literal(c);
+        }
+    }
+
+    private RegexNode group() throws UnsupportedRegexException {
+        Group.Kind kind;
+        int index = 0;
+        if (regex.startsWith("?:", pos)) {
+            kind = Group.Kind.NON_CAPTURING;
+            pos += 2;
+        } else if (regex.startsWith("?>", pos)) {
+            kind = Group.Kind.ATOMIC;
+            pos += 2;
+        } else if (regex.startsWith("?=", pos)) {
+            kind = Group.Kind.LOOKAHEAD;
+            pos += 2;
+        } else if (regex.startsWith("?!", pos)) {
+            kind = Group.Kind.NEGATIVE_LOOKAHEAD;
+            pos += 2;
+        } else if (regex.startsWith("?<=", pos)) {
+            kind = Group.Kind.LOOKBEHIND;
+            pos += 3;
+        } else if (regex.startsWith("?<!", pos)) {
+            kind = Group.Kind.NEGATIVE_LOOKBEHIND;
+            pos += 3;
+        } else if (regex.startsWith("?<", pos)) {
+            int end = regex.indexOf('>', pos);
+            if (end < 0) {
+                throw unsupported("unterminated group name");
+            }
+            kind = Group.Kind.CAPTURING;
+            index = ++groupCount;
+            pos = end + 1;
+        } else if (regex.startsWith("?", pos)) {
+            throw unsupported("inline flags");
+        } else {
+            kind = Group.Kind.CAPTURING;
+            index = ++groupCount;
+        }
+
+        RegexNode body = alternation();
+        if (pos >= regex.length() || regex.charAt(pos) != ')') {
+            throw unsupported("unclosed group");
+        }
+        pos++;
+        return new Group(kind, body, index);
+    }
+
+    private RegexNode quantifier(RegexNode atom) throws UnsupportedRegexException {
+        if (pos >= regex.length()) {
+            return atom;
+        }
+        int min;
+        int max;
+        char c = regex.charAt(pos);
+        if (c == '?') {
+            min = 0;
+            max = 1;
+            pos++;
+        } else if (c == '*') {
+            min = 0;
+            max = Repeat.UNBOUNDED;
+            pos++;
+        } else if (c == '+') {
+            min = 1;
+            max = Repeat.UNBOUNDED;
+            pos++;
+        } else if (c == '{') {
+            int close = regex.indexOf('}', pos);
+            if (close < 0) {
+                throw unsupported("unclosed repetition");
+            }
+            String bounds = regex.substring(pos + 1, close);
+            int comma = bounds.indexOf(',');
+            try {
+                if (comma < 0) {
+                    min = max = Integer.parseInt(bounds);
+                } else {
+                    min = Integer.parseInt(bounds.substring(0, comma));
+                    max = comma == bounds.length() - 1 ? Repeat.UNBOUNDED : Integer.parseInt(bounds.substring(comma + 1));
+                }
+            } catch (NumberFormatException e) {
+                throw unsupported("invalid repetition {" + bounds + "}");
+            }
+            if (min < 0 || max != Repeat.UNBOUNDED && max < min) {
+                throw unsupported("invalid repetition {" + bounds + "}");
+            }
+            pos = close + 1;
+        } else {
+            return atom;
+        }
+
+        if (atom instanceof Anchor || atom instanceof Group && ((Group) atom).kind.isLookaround()) {
+            throw unsupported("quantified assertion");
+        }
+
+        int end = pos;
+        Repeat.Mode mode = Repeat.Mode.GREEDY;
+        if (pos < regex.length() && regex.charAt(pos) == '?') {
+            mode = Repeat.Mode.LAZY;
+            pos++;
+        } else if (pos < regex.length() && regex.charAt(pos) == '+') {
+            mode = Repeat.Mode.POSSESSIVE;
+            pos++;
+        }
+        if (pos < regex.length() && "?*+{".indexOf(regex.charAt(pos)) >= 0) {
+            throw unsupported("stacked quantifiers");
+        }
+        return new Repeat(atom, min, max, mode, end);
+    }
+
+    private void quoted(List<RegexNode> nodes) throws UnsupportedRegexException {
+        pos += 2;
+        int end = regex.indexOf("\\E", pos);
+        if (end < 0) {
+            end = regex.length();
+        }
+        if (end == pos) {
+            pos = Math.min(end + 2, regex.length());
+            return;
+        }
+        for (int i = pos; i < end - 1; i++) {
+            nodes.add(literal(regex.charAt(i)));
+        }
+        // a quantifier after \E applies to the last quoted char only
+        pos = Math.min(end + 2, regex.length());
+        nodes.add(quantifier(literal(regex.charAt(end - 1))));
+    }
+
+    private RegexNode escape() throws UnsupportedRegexException {
+        if (pos >= regex.length()) {
+            throw unsupported("trailing backslash");
+        }
+        char c = regex.charAt(pos);
+        CharSet set = classEscape(c);
+        if (set != null) {
+            pos++;
+            return new CharClass(set);
+        }
+        switch (c) {
+            case 'b':
+                pos++;
+                return new Anchor(Anchor.Kind.WORD_BOUNDARY);
+            case 'B':
+                pos++;
+                return new Anchor(Anchor.Kind.NOT_WORD_BOUNDARY);
+            case 'A':
+                pos++;
+                return new Anchor(Anchor.Kind.BEGIN_INPUT);
+            case 'Z':
+                pos++;
+                return new Anchor(Anchor.Kind.END_INPUT_OR_FINAL_TERMINATOR);
+            case 'z':
+                pos++;
+                return new Anchor(Anchor.Kind.END_INPUT);
+            default:
+                return literal(literalEscape());
+        }
+    }
+
+    private static CharSet classEscape(char c) {
+        switch (c) {
+            case 'd':
+                return CharSet.DIGIT;
+            case 'D':
+                return CharSet.DIGIT.complement();
+            case 'w':
+                return CharSet.WORD;
+            case 'W':
+                return CharSet.WORD.complement();
+            case 's':
+                return CharSet.SPACE;
+            case 'S':
+                return CharSet.SPACE.complement();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses an escape that stands for a single char, with pos on the char after the backslash.
+     */
+    private char literalEscape() throws UnsupportedRegexException {
+        char c = regex.charAt(pos++);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case '0':
+                return octal();
+            case 'x':
+                return hex();
+            case 'u':
+                return (char) number(4, 4, 16);
+            case 'c':
+                if (pos >= regex.length()) {
+                    throw unsupported("invalid control escape");
+                }
+                return (char) (regex.charAt(pos++) ^ 64);
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw unsupported("escape \\" + c);
+                }
+                return c;
+        }
+    }
+
+    private char octal() throws UnsupportedRegexException {
+        int value = 0;
+        int digits = 0;
+        int maxDigits = pos < regex.length() && regex.charAt(pos) <= '3' ? 3 : 2;
+        while (digits < maxDigits && pos < regex.length() && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '7') {
+            value = value * 8 + regex.charAt(pos++) - '0';
+            digits++;
+        }
+        if (digits == 0) {
+            throw unsupported("invalid octal escape");
+        }
+        return (char) value;
+    }
+
+    private char hex() throws UnsupportedRegexException {
+        if (pos < regex.length() && regex.charAt(pos) == '{') {
+            pos++;
+            int close = regex.indexOf('}', pos);
+            if (close < 0) {
+                throw unsupported("unclosed hexadecimal escape");
+            }
+            int value = number(1, close - pos, 16);
+            if (pos != close) {
+                throw unsupported("invalid hexadecimal escape");
+            }
+            pos++;
+            if (value > Character.MAX_VALUE) {
+                throw unsupported("supplementary character");
+            }
+            return (char) value;
+        }
+        return (char) number(2, 2, 16);
+    }
+
+    private int number(int minDigits, int maxDigits, int radix) throws UnsupportedRegexException {
+        int value = 0;
+        int digits = 0;
+        while (digits < maxDigits && pos < regex.length() && Character.digit(regex.charAt(pos), radix) >= 0) {
+            value = value * radix + Character.digit(regex.charAt(pos++), radix);
+            if (value > Character.MAX_CODE_POINT) {
+                throw unsupported("invalid escape value");
+            }
+            digits++;
+        }
+        if (digits < minDigits) {
+            throw unsupported("invalid escape");
+        }
+        return value;
+    }
+
+    /**
+     * Parses a character class, with pos on the char after the opening bracket.
+     */
+    private CharSet charClass() throws UnsupportedRegexException {
+        boolean negated = false;
+        if (pos < regex.length() && regex.charAt(pos) == '^') {
+            negated = true;
+            pos++;
+        }
+        if (pos < regex.length() && regex.charAt(pos) == ']') {
+            throw unsupported("leading ']' in character class");
+        }
+
+        CharSet set = CharSet.EMPTY;
+        while (true) {
+            if (pos >= regex.length()) {
+                throw unsupported("unclosed character class");
+            }
+            char c = regex.charAt(pos);
+            if (c == ']') {
+                pos++;
+                break;
+            }
+            if (c == '[' || regex.startsWith("&&", pos)) {
+                throw unsupported("nested character class");
+            }
+
+            char lo;
+            if (c == '\\') {
+                pos++;
+                if (pos >= regex.length()) {
+                    throw unsupported("unclosed character class");
+                }
+                CharSet escaped = classEscape(regex.charAt(pos));
+                if (escaped != null) {
+                    pos++;
+                    set = set.union(escaped);
+                    continue;
+                }
+                if (regex.charAt(pos) == 'Q') {
+                    throw unsupported("quoting in character class");
+                }
+                lo = classChar(literalEscape());
+            } else {
+                lo = classChar(c);
+                pos++;
+            }
+
+            if (pos + 1 < regex.length() && regex.charAt(pos) == '-' && regex.charAt(pos + 1) != ']') {
+                pos++;
+                char hi;
+                c = regex.charAt(pos);
+                if (c == '\\') {
+                    pos++;
+                    if (pos >= regex.length() || classEscape(regex.charAt(pos)) != null) {
+                        throw unsupported("invalid range in character class");
+                    }
+                    hi = classChar(literalEscape());
+                } else if (c == '[') {
+                    throw unsupported("nested character class");
+                } else {
+                    hi = classChar(c);
+                    pos++;
+                }
+                if (hi < lo) {
+                    throw unsupported("invalid range in character class");
+                }
+                set = set.union(CharSet.range(lo, hi));
+            } else {
+                set = set.union(CharSet.of(lo));
+            }
+        }
+        return negated ? set.complement() : set;
+    }
+
+    private char classChar(char c) throws UnsupportedRegexException {
+        if (Character.isSurrogate(c)) {
+            throw unsupported("supplementary character");
+        }
+        return c;
+    }
+
+    private RegexNode literal(char c) throws UnsupportedRegexException {
+        return new Literal(classChar(c));
+    }
+
+    private UnsupportedRegexException unsupported(String construct) {
+        return new UnsupportedRegexException("Unsupported regex construct (" + construct + ") at index "
+                + Math.min(pos, regex.length()) + " of " + regex);
+    }
+}
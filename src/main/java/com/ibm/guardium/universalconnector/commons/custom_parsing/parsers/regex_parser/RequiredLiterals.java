@@ -0,0 +1,110 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexNode.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes literal substrings that every input matched by a regex must contain. A payload lacking any of
+ * them cannot match, so the regex does not need to run. The analysis is conservative: regexes it cannot
+ * model, and parts such as alternations or optional repetitions, simply contribute no literal.
+ */
+public final class RequiredLiterals {
+    static final int MIN_LENGTH = 2;
+
+    private final Set<String> literals = new LinkedHashSet<>();
+    private final StringBuilder run = new StringBuilder();
+
+    private RequiredLiterals() {
+    }
+
+    /**
+     * @param regex A regular expression.
+     * @return The literals, of at least two chars, that any text containing a match also contains. Empty if
+     * none could be proven.
+     */
+    public static List<String> of(String regex) {
+        RegexNode root;
+        try {
+            root = RegexSyntax.parse(regex);
+        } catch (UnsupportedRegexException e) {
+            return Collections.emptyList();
+        }
+        RequiredLiterals required = new RequiredLiterals();
+        required.collect(root);
+        required.flush();
+        return new ArrayList<>(required.literals);
+    }
+
+    private void collect(RegexNode node) {
+        if (node instanceof Literal) {
+            run.append(((Literal) node).c);
+        } else if (node instanceof CharClass) {
+            int c = ((CharClass) node).set.singleChar();
+            if (c >= 0) {
+                run.append((char) c);
+            } else {
+                flush();
+            }
+        } else if (node instanceof Sequence) {
+            for (RegexNode child : ((Sequence) node).nodes) {
+                collect(child);
+            }
+        } else if (node instanceof Group) {
+            collectGroup((Group) node);
+        } else if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            flush();
+            if (repeat.min > 0) {
+                // the body occurs at least once, but what surrounds it is not adjacent
+                collect(repeat.body);
+                flush();
+            }
+        } else if (node instanceof Alternation) {
+            flush();
+        }
+        // anchors are zero-width, they do not break a run
+    }
+
+    private void collectGroup(Group group) {
+        switch (group.kind) {
+            case CAPTURING:
+            case NON_CAPTURING:
+            case ATOMIC:
+                collect(group.body);
+                break;
+            case LOOKBEHIND:
+                // the body ends where the rest of the match starts, but may overlap what precedes it
+                flush();
+                collect(group.body);
+                break;
+            case LOOKAHEAD:
+                // the body starts where the rest of the match starts, so it is not adjacent to anything
+                flush();
+                collect(group.body);
+                flush();
+                break;
+            default:
+                flush();
+        }
+    }
+
+    private void flush() {
+        if (run.length() >= MIN_LENGTH) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+}
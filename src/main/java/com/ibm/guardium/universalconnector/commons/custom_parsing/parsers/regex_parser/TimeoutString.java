@@ -20,8 +20,8 @@ package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex
 public class TimeoutString implements CharSequence {
     static final long DEFAULT_CHECK_ITERATIONS = 500;
 
-    private final CharSequence source;
-    private final long endTime;
+    private CharSequence source;
+    private long endTime;
     private long timeoutCheckIterations = DEFAULT_CHECK_ITERATIONS;
     private long count = 0;
 
@@ -35,6 +35,19 @@ public class TimeoutString implements CharSequence {
         this.timeoutCheckIterations = timeoutCheckIterations;
     }
 
+    /**
+     * Points this instance at another source and deadline, so that a Matcher over it can be reused
+     * through {@link java.util.regex.Matcher#reset()}.
+     *
+     * @return This instance.
+     */
+    public TimeoutString reset(CharSequence source, long timeoutNano) {
+        this.source = source;
+        this.endTime = timeoutNano;
+        this.count = 0;
+        return this;
+    }
+
     @Override
     public int length() {
         return source.length();
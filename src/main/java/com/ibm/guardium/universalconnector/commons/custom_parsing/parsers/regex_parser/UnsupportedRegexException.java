@@ -0,0 +1,21 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 5725I71-CC011829
+ * (C) Copyright IBM Corp. 2026. All Rights Reserved.
+ * US Government Users Restricted Rights - Use, duplication or
+ * disclosure restricted by GSA ADP Schedule Contract with IBM Corp.
+ */
+
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+/**
+ * Thrown when a regex uses a construct that {@link RegexSyntax} does not model. The regex may still be
+ * perfectly valid for java.util.regex.
+ */
+public class UnsupportedRegexException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedRegexException(String m) {
+        super(m);
+    }
+}
@@ -20,6 +20,12 @@ public class SessionLocator {
     private boolean isIpv6;
     private String clientIpv6;
     private String serverIpv6;
+    // binary forms of the validated addresses, kept alongside their text; not serialized
+    private transient int clientIpv4Address;
+    private transient int serverIpv4Address;
+    private transient boolean hasIpv4Addresses;
+    private transient byte[] clientIpv6Address;
+    private transient byte[] serverIpv6Address;
 
     public int getClientPort() {
         return clientPort;
@@ -115,4 +121,69 @@ public class SessionLocator {
     public void setServerIpv6(String serverIpv6) {
         this.serverIpv6 = serverIpv6;
     }
+
+    /**
+     * Sets the binary form of the IPv4 addresses, as parsed by
+     * {@link com.ibm.guardium.universalconnector.commons.IpAddresses#parseIpv4(CharSequence)}. The text
+     * addresses are not changed.
+     *
+     * @param clientIpv4Address The client address.
+     * @param serverIpv4Address The server address.
+     */
+    public void setIpv4Addresses(int clientIpv4Address, int serverIpv4Address) {
+        this.clientIpv4Address = clientIpv4Address;
+        this.serverIpv4Address = serverIpv4Address;
+        this.hasIpv4Addresses = true;
+    }
+
+    /**
+     * @return Whether the binary form of the IPv4 addresses was set.
+     */
+    public boolean hasIpv4Addresses() {
+        return hasIpv4Addresses;
+    }
+
+    public int getClientIpv4Address() {
+        return clientIpv4Address;
+    }
+
+    public int getServerIpv4Address() {
+        return serverIpv4Address;
+    }
+
+    /**
+     * @return The 16 bytes of the client IPv6 address, or null if its binary form was not set. The array must
+     * not be modified.
+     */
+    public byte[] getClientIpv6Address() {
+        return clientIpv6Address;
+    }
+
+    /**
+     * Sets the binary form of the client IPv6 address, as parsed by
+     * {@link com.ibm.guardium.universalconnector.commons.IpAddresses#parseIpv6(CharSequence, byte[])}. The
+     * text address is not changed.
+     *
+     * @param clientIpv6Address The 16 bytes of the address; the array is kept, not copied.
+     */
+    public void setClientIpv6Address(byte[] clientIpv6Address) {
+        this.clientIpv6Address = clientIpv6Address;
+    }
+
+    /**
+     * @return The 16 bytes of the server IPv6 address, or null if its binary form was not set. The array must
+     * not be modified.
+     */
+    public byte[] getServerIpv6Address() {
+        return serverIpv6Address;
+    }
+
+    /**
+     * Sets the binary form of the server IPv6 address.
+     *
+     * @param serverIpv6Address The 16 bytes of the address; the array is kept, not copied.
+     */
+    public void setServerIpv6Address(byte[] serverIpv6Address) {
+        this.serverIpv6Address = serverIpv6Address;
+    }
 }
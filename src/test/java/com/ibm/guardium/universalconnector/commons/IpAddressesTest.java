@@ -0,0 +1,72 @@
+//
+// Copyright 2020- IBM Inc. All rights reserved
+// SPDX-License-Identifier: Apache2.0
+//
+package com.ibm.guardium.universalconnector.commons;
+
+import org.apache.commons.validator.routines.InetAddressValidator;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IpAddressesTest {
+    private static final InetAddressValidator validator = InetAddressValidator.getInstance();
+    private static final String ALPHABET = "0123456789abcdefABCDEF:.:.:";
+
+    @Test
+    public void testIpv4() {
+        assertEquals(0x0A000007L, IpAddresses.parseIpv4("10.0.0.7"));
+        assertEquals(0xFFFFFFFFL, IpAddresses.parseIpv4("255.255.255.255"));
+        assertEquals(-1, IpAddresses.parseIpv4("01.2.3.4"));
+        assertEquals(-1, IpAddresses.parseIpv4("256.1.1.1"));
+        assertEquals(-1, IpAddresses.parseIpv4("1.2.3"));
+        assertEquals(-1, IpAddresses.parseIpv4(null));
+        assertEquals("10.0.0.7", IpAddresses.formatIpv4(0x0A000007));
+    }
+
+    @Test
+    public void testIpv6() throws Exception {
+        String[] addresses = {"::", "::1", "1::", "1:2:3:4:5:6:7::", "2001:DB8:0:0:8:800:200C:417A",
+                "::ffff:10.0.0.7", "1:2:3:4:5:6:1.2.3.4", "fe80::a00:27ff:fee0:1fcf"};
+        for (String address : addresses) {
+            byte[] bytes = new byte[IpAddresses.IPV6_BYTES];
+            assertTrue(address, IpAddresses.parseIpv6(address, bytes));
+            assertArrayEquals(address, toBytes(address), bytes);
+        }
+        assertEquals("2001:db8::8:800:200c:417a", IpAddresses.normalize("2001:DB8:0:0:8:800:200C:417A"));
+        assertEquals("1:0:2::", IpAddresses.normalize("1:0:2:0:0:0:0:0"));
+        assertEquals("1:0:2:0:3:0:4:0", IpAddresses.normalize("1:0:2:0:3:0:4:0"));
+        assertNull(IpAddresses.normalize("fe80::1%eth0"));
+    }
+
+    @Test
+    public void testSameAsInetAddressValidator() {
+        Random random = new Random(5);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder address = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                address.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            String text = address.toString();
+            assertEquals(text, validator.isValidInet4Address(text), IpAddresses.isValidIpv4(text));
+            assertEquals(text, validator.isValidInet6Address(text), IpAddresses.isValidIpv6(text));
+        }
+    }
+
+    private static byte[] toBytes(String address) throws Exception {
+        byte[] bytes = InetAddress.getByName(address).getAddress();
+        if (bytes.length == 4) {
+            // InetAddress turns IPv4-mapped addresses into IPv4 ones
+            byte[] mapped = new byte[IpAddresses.IPV6_BYTES];
+            mapped[10] = (byte) 0xff;
+            mapped[11] = (byte) 0xff;
+            System.arraycopy(bytes, 0, mapped, 12, 4);
+            return mapped;
+        }
+        return bytes;
+    }
+}
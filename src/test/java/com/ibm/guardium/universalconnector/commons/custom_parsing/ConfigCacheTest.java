@@ -0,0 +1,54 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConfigCacheTest {
+
+    @Test
+    public void testReloadOnChange() throws IOException {
+        File file = File.createTempFile("config", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+
+        AtomicInteger loads = new AtomicInteger();
+        ConfigCache<String> cache = new ConfigCache<>(file.getPath(), () -> {
+            loads.incrementAndGet();
+            try {
+                return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                return null;
+            }
+        }, 0);
+
+        assertEquals("first", cache.get());
+        assertEquals("first", cache.get());
+        assertEquals(1, loads.get());
+
+        Files.write(file.toPath(), "second one".getBytes(StandardCharsets.UTF_8));
+        assertEquals("second one", cache.get());
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getSwapCount());
+        assertTrue(cache.getLastSwapNanos() >= 0);
+    }
+
+    @Test
+    public void testInvalidate() {
+        AtomicInteger loads = new AtomicInteger();
+        ConfigCache<Integer> cache = new ConfigCache<>(null, loads::incrementAndGet, 60000);
+
+        assertEquals(Integer.valueOf(1), cache.get());
+        assertEquals(Integer.valueOf(1), cache.get());
+
+        cache.invalidate();
+        assertEquals(Integer.valueOf(2), cache.get());
+        assertEquals(1, cache.getSwapCount());
+    }
+}
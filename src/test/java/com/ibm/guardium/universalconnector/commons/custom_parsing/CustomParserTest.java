@@ -0,0 +1,291 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Accessor;
+import com.ibm.guardium.universalconnector.commons.structures.Record;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CustomParserTest {
+    static final String PAYLOAD = "[Session ID: 12345] [Client Port: 5432] [Server Port: 1521] [DB User: scott] "
+            + "[Server Type: ORACLE] [DB Protocol: TCP/IP] [DB Name: orcl] [Client IP: 10.0.0.7]";
+
+    private final CustomParser parser = new TestParser("src/test/java/resources/config.json");
+
+    @Test
+    public void testParseRecord() {
+        Record record = parser.parseRecord(PAYLOAD);
+
+        assertNotNull(record);
+        assertEquals("12345", record.getSessionId());
+        assertEquals("orcl", record.getDbName());
+        assertEquals("scott", record.getAccessor().getDbUser());
+        assertEquals("ORACLE", record.getAccessor().getServerType());
+        assertEquals("TCP/IP", record.getAccessor().getDbProtocol());
+        assertEquals("10.0.0.7", record.getSessionLocator().getClientIp());
+        assertEquals(5432, record.getSessionLocator().getClientPort());
+        assertEquals(1521, record.getSessionLocator().getServerPort());
+        assertFalse(record.isException());
+    }
+
+    @Test
+    public void testConfigIsReadOnce() {
+        parser.parseRecord(PAYLOAD);
+        parser.parseRecord(PAYLOAD);
+
+        assertEquals(0, parser.getConfigCache().getSwapCount());
+        assertEquals(-1, parser.getConfigCache().getLastSwapNanos());
+    }
+
+    @Test
+    public void testConcurrentParsing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Record>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String payload = PAYLOAD.replace("12345", String.valueOf(i));
+                futures.add(executor.submit(() -> parser.parseRecord(payload)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(String.valueOf(i), futures.get(i).get().getSessionId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParseRecords() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        CustomParser batchParser = new TestParser("src/test/java/resources/config.json") {
+            @Override
+            protected ForkJoinPool getForkJoinPool() {
+                return pool;
+            }
+
+            @Override
+            protected String getDbName(String payload) {
+                if (payload.contains("fail")) {
+                    throw new IllegalStateException("fail");
+                }
+                return super.getDbName(payload);
+            }
+        };
+        try {
+            List<String> payloads = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                payloads.add(i % 100 == 7 ? "fail" : PAYLOAD.replace("12345", String.valueOf(i)));
+            }
+            List<ParseResult> results = batchParser.parseRecords(payloads);
+
+            assertEquals(payloads.size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                ParseResult result = results.get(i);
+                assertSame(payloads.get(i), result.getPayload());
+                if (i % 100 == 7) {
+                    assertTrue(result.isFailure());
+                    assertEquals("fail", result.getError().getMessage());
+                } else {
+                    assertFalse(result.isFailure());
+                    assertEquals(String.valueOf(i), result.getRecord().getSessionId());
+                }
+            }
+
+            List<String> sessionIds = batchParser.parseRecords(payloads.stream().limit(3))
+                    .map(result -> result.getRecord().getSessionId())
+                    .collect(Collectors.toList());
+            assertEquals(Arrays.asList("0", "1", "2"), sessionIds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFieldsAreExtractedOncePerRecord() {
+        CustomParser memoParser = new TestParser("src/test/java/resources/config.json") {
+            @Override
+            protected String getAppUserName(String payload) {
+                return getValue(payload, PropertyField.DB_USER);
+            }
+        };
+        Record record = memoParser.parseRecord(PAYLOAD);
+
+        assertEquals("scott", record.getAppUserName());
+        assertEquals("scott", record.getAccessor().getDbUser());
+        // getDbUser reused the value getAppUserName extracted, and nothing else was requested twice
+        assertEquals(1, memoParser.getSavedExtractionCount());
+        memoParser.parseRecord(PAYLOAD);
+        assertEquals(2, memoParser.getSavedExtractionCount());
+    }
+
+    @Test
+    public void testValueHooksOverridden() {
+        CustomParser valueParser = new TestParser("src/test/java/resources/config.json") {
+            @Override
+            protected String getValue(String payload, String fieldName) {
+                String value = super.getValue(payload, fieldName);
+                return PropertyConstant.DB_USER.equals(fieldName) && value != null ? value.toUpperCase(Locale.ROOT) : value;
+            }
+        };
+        List<String> expressions = new ArrayList<>();
+        CustomParser parseParser = new TestParser("src/test/java/resources/config.json") {
+            @Override
+            protected String parse(String payload, String key) {
+                expressions.add(key);
+                String value = super.parse(payload, key);
+                return "5432".equals(value) ? "15432" : value;
+            }
+        };
+
+        assertEquals("SCOTT", valueParser.parseRecord(PAYLOAD).getAccessor().getDbUser());
+        Record record = parseParser.parseRecord(PAYLOAD);
+        assertEquals("scott", record.getAccessor().getDbUser());
+        assertEquals(15432, record.getSessionLocator().getClientPort());
+        assertTrue(expressions.contains(parseParser.getConfigCache().get().getProperties().get(PropertyConstant.DB_USER)));
+    }
+
+    @Test
+    public void testSnifferParsing() throws IOException {
+        File config = writeConfig("{\"db_user\": \"(?<=\\\\[DB User: )\\\\w+(?=\\\\])\", "
+                + "\"sql_parsing_active\": \"true\", \"parsing_type\": \"SNIFFER\", \"sniffer_parser\": \"PGRS\"}");
+        Record record = new TestParser(config.getPath()).parseRecord(PAYLOAD);
+
+        assertEquals("scott", record.getAccessor().getDbUser());
+        assertEquals("POSTGRESQL", record.getAccessor().getServerType());
+        assertEquals("PGRS", record.getAccessor().getLanguage());
+        assertEquals(Accessor.DATA_TYPE_GUARDIUM_SHOULD_PARSE_SQL, record.getAccessor().getDataType());
+    }
+
+    @Test
+    public void testInvalidSqlParsingConfig() throws IOException {
+        File config = writeConfig("{\"sql_parsing_active\": \"true\", \"parsing_type\": \"SNIFFER\"}");
+
+        assertNull(new TestParser(config.getPath()).parseRecord(PAYLOAD));
+    }
+
+    @Test
+    public void testInvalidIntFields() throws IOException {
+        File config = writeConfig("{\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", "
+                + "\"client_port\": \"(?<=\\\\[Client Port: )[^\\\\]]+\", "
+                + "\"server_port\": \"(?<=\\\\[Server Port: )[^\\\\]]+\"}");
+        CustomParser intParser = new TestParser(config.getPath());
+
+        Record record = intParser.parseRecord("[Session ID: 1] [Client Port: 99999999999] [Server Port: 15a]");
+        assertEquals(-1, record.getSessionLocator().getClientPort());
+        assertEquals(-1, record.getSessionLocator().getServerPort());
+
+        record = intParser.parseRecord("[Session ID: 1] [Client Port: +2147483647] [Server Port: 0]");
+        assertEquals(Integer.MAX_VALUE, record.getSessionLocator().getClientPort());
+        assertEquals(0, record.getSessionLocator().getServerPort());
+    }
+
+    @Test
+    public void testOutOfTimeRecordCount() throws IOException {
+        String fields = "\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", "
+                + "\"db_user\": \"(?<=\\\\[DB User: )\\\\w+(?=\\\\])\"";
+        File config = writeConfig("{" + fields + ", \"record_timeout_micros\": 1}");
+        CustomParser slowParser = new TestParser(config.getPath()) {
+            @Override
+            protected boolean isValid(String payload) {
+                try {
+                    // a thousand times the budget of the record
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.isValid(payload);
+            }
+        };
+        Record record = slowParser.parseRecord(PAYLOAD);
+
+        assertEquals(PropertyConstant.DATABASE_NOT_AVAILABLE, record.getAccessor().getDbUser());
+        assertEquals(1, slowParser.getOutOfTimeRecordCount());
+    }
+
+    @Test
+    public void testConvertToIntOverridden() throws IOException {
+        File config = writeConfig("{\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", "
+                + "\"server_port\": \"(?<=\\\\[Server Port: )[^\\\\]]+\"}");
+        List<String> converted = new ArrayList<>();
+        CustomParser hexParser = new TestParser(config.getPath()) {
+            @Override
+            protected Integer convertToInt(String fieldName, String value) {
+                converted.add(fieldName + "=" + value);
+                if (value != null && value.startsWith("0x")) {
+                    return Integer.valueOf(value.substring(2), 16);
+                }
+                return super.convertToInt(fieldName, value);
+            }
+        };
+        Record record = hexParser.parseRecord("[Session ID: 1] [Server Port: 0x5f1]");
+
+        assertEquals(1521, record.getSessionLocator().getServerPort());
+        assertEquals(-1, record.getSessionLocator().getClientPort());
+        assertTrue(converted.contains(PropertyConstant.SERVER_PORT + "=0x5f1"));
+        assertTrue(converted.contains(PropertyConstant.CLIENT_PORT + "=null"));
+    }
+
+    @Test
+    public void testBytePayloads() throws IOException {
+        File config = writeConfig("{\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", "
+                + "\"db_user\": \"(?<=\\\\[DB User: )\\\\w+\", \"db_name\": \"(?<=\\\\[DB Name: )[^\\\\]]+\"}");
+        CustomParser byteParser = new TestParser(config.getPath());
+        byte[] ascii = ("xx" + PAYLOAD + "yy").getBytes(StandardCharsets.UTF_8);
+        byte[] utf8 = PAYLOAD.replace("orcl", "\u00f6rcl\u20ac").getBytes(StandardCharsets.UTF_8);
+
+        Record record = byteParser.parseRecord(ascii, 2, ascii.length - 4);
+        assertEquals("12345", record.getSessionId());
+        assertEquals("orcl", record.getDbName());
+        assertEquals("\u00f6rcl\u20ac", byteParser.parseRecord(utf8, 0, utf8.length).getDbName());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(utf8.length);
+        direct.put(utf8).flip();
+        assertEquals("\u00f6rcl\u20ac", byteParser.parseRecord(direct).getDbName());
+        assertEquals(0, direct.position());
+        ByteBuffer heap = ByteBuffer.wrap(ascii, 2, ascii.length - 4).slice();
+        assertEquals("scott", byteParser.parseRecord(heap).getAccessor().getDbUser());
+    }
+
+    @Test
+    public void testInvalidConfigPath() {
+        CustomParser invalid = new TestParser("does/not/exist.json");
+
+        assertNull(invalid.parseRecord(PAYLOAD));
+    }
+
+    static class TestParser extends CustomParser {
+        private final String configFilePath;
+
+        TestParser(String configFilePath) {
+            super(ParserFactory.ParserType.regex);
+            this.configFilePath = configFilePath;
+        }
+
+        @Override
+        public String getConfigFilePath() {
+            return configFilePath;
+        }
+    }
+
+    static File writeConfig(String content) throws IOException {
+        File file = File.createTempFile("config", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
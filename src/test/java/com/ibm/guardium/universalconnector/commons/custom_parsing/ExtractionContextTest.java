@@ -0,0 +1,118 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.PAYLOAD;
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.ParsingPlanTest.compile;
+import static org.junit.Assert.*;
+
+public class ExtractionContextTest {
+
+    @Test
+    public void testRecordTimeout() throws InterruptedException {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+",
+                PropertyConstant.DB_USER, "(?<=\\[DB User: )\\w+(?=\\])",
+                PropertyConstant.CONSTANT_FIELDS, Collections.singletonMap(PropertyConstant.SERVER_OS, "Linux"),
+                PropertyConstant.RECORD_TIMEOUT_MICROS, 1);
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertEquals(1000, plan.getRecordTimeoutNanos());
+        // a thousand times the budget of the record
+        Thread.sleep(1);
+        assertFalse(context.isOutOfTime());
+        assertNull(context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertTrue(context.isOutOfTime());
+        assertNull(context.extract(PropertyField.DB_USER.ordinal()));
+        // constant fields take no time to extract
+        assertEquals("Linux", context.extract(PropertyField.SERVER_OS.ordinal()));
+    }
+
+    @Test
+    public void testPausedTimeIsNotCounted() throws InterruptedException {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+",
+                PropertyConstant.RECORD_TIMEOUT_MICROS, 100000);
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        context.pause();
+        // longer than the budget of the record
+        Thread.sleep(200);
+        context.resume();
+        assertEquals("12345", context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertFalse(context.isOutOfTime());
+    }
+
+    @Test
+    public void testNoRecordTimeout() throws InterruptedException {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+");
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertEquals(0, plan.getRecordTimeoutNanos());
+        Thread.sleep(1);
+        assertEquals("12345", context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertFalse(context.isOutOfTime());
+    }
+
+    @Test
+    public void testFieldOrder() {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+",
+                PropertyConstant.CLIENT_PORT, "Client Port: (\\d+)",
+                PropertyConstant.DB_NAME, "DB Name: (\\w+)",
+                PropertyConstant.DB_USER, "(?<=\\[DB User: )\\w+",
+                PropertyConstant.FIELD_ORDER, Arrays.asList(PropertyConstant.SESSION_ID, PropertyConstant.CLIENT_PORT,
+                        PropertyConstant.DB_NAME, PropertyConstant.DB_USER, "no_such_field"));
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertEquals(4, plan.getOrderedCount());
+        assertEquals(2, plan.getOrderPosition(PropertyField.DB_NAME.ordinal()));
+        assertEquals("orcl", context.extract(PropertyField.DB_NAME.ordinal()));
+        assertEquals("12345", context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertEquals("5432", context.extract(PropertyField.CLIENT_PORT.ordinal()));
+        // listed after db_name but found before it, so by the full scan
+        assertEquals("scott", context.extract(PropertyField.DB_USER.ordinal()));
+    }
+
+    @Test
+    public void testFieldOrderSearchesFromThePreviousField() {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+",
+                PropertyConstant.DB_NAME, "DB Name: (\\w+)",
+                PropertyConstant.FIELD_ORDER, Arrays.asList(PropertyConstant.SESSION_ID, PropertyConstant.DB_NAME));
+        ExtractionContext context = new ExtractionContext(plan, "[DB Name: quoted] [Session ID: 7] [DB Name: orcl]");
+
+        assertEquals("orcl", context.extract(PropertyField.DB_NAME.ordinal()));
+        assertEquals("7", context.extract(PropertyField.SESSION_ID.ordinal()));
+    }
+
+    @Test
+    public void testRegions() {
+        Map<String, String> regions = new HashMap<>();
+        regions.put("name", "\\[DB Name: [^\\]]*\\]");
+        regions.put("port", "\\[Client Port: ([^\\]]*)");
+        regions.put("missing", "\\[Missing: .*");
+        Map<String, String> fieldRegions = new HashMap<>();
+        fieldRegions.put(PropertyConstant.DB_NAME, "name");
+        fieldRegions.put(PropertyConstant.CLIENT_PORT, "port");
+        fieldRegions.put(PropertyConstant.DB_USER, "missing");
+        fieldRegions.put(PropertyConstant.SESSION_ID, "no_such_region");
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+",
+                PropertyConstant.DB_NAME, "(?<=: )\\w+",
+                PropertyConstant.CLIENT_PORT, "^\\d+",
+                PropertyConstant.DB_USER, "\\w+",
+                PropertyConstant.REGIONS, regions,
+                PropertyConstant.FIELD_REGIONS, fieldRegions);
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertEquals(3, plan.getRegionCount());
+        assertEquals(-1, plan.getRegion(PropertyField.SESSION_ID.ordinal()));
+        assertEquals("12345", context.extract(PropertyField.SESSION_ID.ordinal()));
+        // matched in their region as if it were the whole payload
+        assertEquals("orcl", context.extract(PropertyField.DB_NAME.ordinal()));
+        assertEquals("5432", context.extract(PropertyField.CLIENT_PORT.ordinal()));
+        // the missing region is not in the payload, so db_user is not searched in the rest of it
+        assertNull(context.extract(PropertyField.DB_USER.ordinal()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.PAYLOAD;
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.ParsingPlanTest.compile;
+import static org.junit.Assert.*;
+
+public class FieldTemplateTest {
+    private static final ParsingPlan PLAN = compile(PropertyConstant.DB_USER, "(?<=\\[DB User: )\\w+",
+            PropertyConstant.DB_NAME, "(?<=\\[DB Name: )\\w+");
+
+    @Test
+    public void testResolve() {
+        FieldTemplate template = FieldTemplate.compile("${db_user}@${db_name}:${db_user}", slots());
+        ExtractionContext context = new ExtractionContext(PLAN, PAYLOAD);
+
+        assertArrayEquals(new int[]{PropertyField.DB_USER.ordinal(), PropertyField.DB_NAME.ordinal(),
+                PropertyField.DB_USER.ordinal()}, template.getSlots());
+        assertEquals("scott@orcl:scott", template.resolve(context));
+        // the second reference to db_user reuses its value
+        assertEquals(1, context.getSavedExtractions());
+        assertEquals("no references", FieldTemplate.compile("no references", slots()).resolve(context));
+    }
+
+    @Test
+    public void testMissingReference() {
+        FieldTemplate template = FieldTemplate.compile("${db_user}@${db_name}", slots());
+
+        assertNull(template.resolve(new ExtractionContext(PLAN, "[DB User: scott]")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedReference() {
+        FieldTemplate.compile("${db_user}@${db_name", slots());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownReference() {
+        FieldTemplate.compile("${db_user}@${no_such_field}", slots());
+    }
+
+    private static Map<String, Integer> slots() {
+        Map<String, Integer> slots = new HashMap<>();
+        slots.put(PropertyConstant.DB_USER, PLAN.getSlot(PropertyConstant.DB_USER));
+        slots.put(PropertyConstant.DB_NAME, PLAN.getSlot(PropertyConstant.DB_NAME));
+        return slots;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Record;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.PAYLOAD;
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.writeConfig;
+import static org.junit.Assert.*;
+
+public class FilterRuleTest {
+
+    @Test
+    public void testFilterRules() throws IOException {
+        File config = writeConfig("{\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", "
+                + "\"db_user\": \"(?<=\\\\[DB User: )\\\\w+\", \"server_type\": \"(?<=\\\\[Server Type: )\\\\w+\", "
+                + "\"filter_rules\": [{\"name\": \"health checks\", \"action\": \"drop\", \"payload_contains\": \"SELECT 1 FROM DUAL\"}, "
+                + "{\"action\": \"keep\", \"field\": \"db_user\", \"equals\": [\"scott\", \"admin\"]}, "
+                + "{\"name\": \"service accounts\", \"action\": \"drop\", \"field\": \"db_user\", \"prefix\": \"svc_\"}, "
+                + "{\"action\": \"drop\", \"field\": \"server_type\", \"equals\": \"MYSQL\"}, "
+                + "{\"action\": \"drop\", \"field\": \"no_such_field\", \"equals\": \"x\"}]}");
+        CustomParser filteringParser = new CustomParserTest.TestParser(config.getPath());
+
+        assertNull(filteringParser.parseRecord(PAYLOAD + " SELECT 1 FROM DUAL"));
+        assertEquals("scott", filteringParser.parseRecord(PAYLOAD.replace("ORACLE", "MYSQL")).getAccessor().getDbUser());
+        assertNull(filteringParser.parseRecord(PAYLOAD.replace("scott", "svc_backup")));
+        assertNull(filteringParser.parseLazyRecord(PAYLOAD.replace("scott", "bob").replace("ORACLE", "MYSQL")));
+        assertEquals("bob", filteringParser.parseRecord(PAYLOAD.replace("scott", "bob")).getAccessor().getDbUser());
+
+        List<FilterRule> rules = filteringParser.getConfigCache().get().getFilterRules();
+        assertEquals(4, rules.size());
+        assertEquals("health checks", rules.get(0).getName());
+        assertEquals(1, rules.get(0).getMatchCount());
+        assertEquals("rule 2", rules.get(1).getName());
+        assertEquals(1, rules.get(1).getMatchCount());
+        assertEquals(1, rules.get(2).getMatchCount());
+        assertEquals(1, rules.get(3).getMatchCount());
+    }
+
+    @Test
+    public void testFieldConditionsReadTheGetters() throws IOException {
+        // the server type is not extracted, it is the one of the sniffer parser
+        File config = writeConfig("{\"db_user\": \"(?<=\\\\[DB User: )\\\\w+(?=\\\\])\", "
+                + "\"sql_parsing_active\": \"true\", \"parsing_type\": \"SNIFFER\", \"sniffer_parser\": \"PGRS\", "
+                + "\"filter_rules\": [{\"action\": \"drop\", \"field\": \"server_type\", \"equals\": \"POSTGRESQL\"}]}");
+        assertNull(new CustomParserTest.TestParser(config.getPath()).parseRecord(PAYLOAD));
+
+        config = writeConfig("{\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", \"db_user\": \"(?<=\\\\[DB User: )\\\\w+\", "
+                + "\"client_port\": \"(?<=\\\\[Client Port: )\\\\d+\", "
+                + "\"filter_rules\": [{\"action\": \"drop\", \"field\": \"db_user\", \"equals\": \"SCOTT\"}, "
+                + "{\"action\": \"drop\", \"field\": \"client_port\", \"equals\": \"-1\"}]}");
+        List<String> dbUsers = new ArrayList<>();
+        CustomParser upperCaseParser = new CustomParserTest.TestParser(config.getPath()) {
+            @Override
+            protected String getDbUser(String payload) {
+                dbUsers.add(payload);
+                return super.getDbUser(payload).toUpperCase(Locale.ROOT);
+            }
+        };
+
+        assertNull(upperCaseParser.parseRecord(PAYLOAD));
+        assertNull(upperCaseParser.parseLazyRecord(PAYLOAD));
+        Record record = upperCaseParser.parseRecord(PAYLOAD.replace("scott", "tiger"));
+        assertEquals("TIGER", record.getAccessor().getDbUser());
+        // once per record, for the rule and the Record
+        assertEquals(3, dbUsers.size());
+        assertEquals(5432, record.getSessionLocator().getClientPort());
+        // the port the Record holds when the session id is missing
+        assertNull(upperCaseParser.parseRecord(PAYLOAD.replace("tiger", "bob").replace("Session ID", "Session")));
+    }
+
+    @Test
+    public void testCompile() {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("name", "service accounts");
+        rule.put("action", "Drop");
+        rule.put("field", PropertyConstant.DB_USER);
+        rule.put("equals", Arrays.asList("svc_backup", "svc_batch"));
+        FilterRule compiled = FilterRule.compile(2, rule, slots());
+
+        assertEquals("service accounts", compiled.getName());
+        assertEquals(FilterRule.Action.DROP, compiled.getAction());
+        assertEquals(0, compiled.getMatchCount());
+        assertEquals("rule 3", FilterRule.compile(2, Collections.singletonMap("action", "keep"), slots()).getName());
+    }
+
+    @Test
+    public void testInvalidRules() {
+        assertInvalid("keep");
+        assertInvalid(rule("action", "skip"));
+        assertInvalid(rule("action", "keep", "field", PropertyConstant.DB_USER, "suffix", "_test"));
+        assertInvalid(rule("action", "keep", "field", "no_such_field", "equals", "x"));
+        // a field without a value condition, and a value condition without a field
+        assertInvalid(rule("action", "keep", "field", PropertyConstant.DB_USER));
+        assertInvalid(rule("action", "keep", "prefix", "svc_"));
+    }
+
+    private static void assertInvalid(Object rule) {
+        try {
+            FilterRule.compile(0, rule, slots());
+            fail("Expected " + rule + " to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static Map<String, Object> rule(String... keysAndValues) {
+        Map<String, Object> rule = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            rule.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return rule;
+    }
+
+    private static Map<String, Integer> slots() {
+        return Collections.singletonMap(PropertyConstant.DB_USER, PropertyField.DB_USER.ordinal());
+    }
+}
@@ -0,0 +1,81 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Record;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.PAYLOAD;
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.writeConfig;
+import static org.junit.Assert.*;
+
+public class LazyRecordTest {
+    private final List<PropertyField> extracted = new ArrayList<>();
+    private final CustomParser parser;
+
+    public LazyRecordTest() throws IOException {
+        File config = writeConfig("{\"session_id\": \"(?<=\\\\[Session ID: )\\\\d+\", "
+                + "\"db_user\": \"(?<=\\\\[DB User: )\\\\w+\", \"db_name\": \"(?<=\\\\[DB Name: )\\\\w+\", "
+                + "\"client_port\": \"(?<=\\\\[Client Port: )\\\\d+\", \"server_type\": \"(?<=\\\\[Server Type: )\\\\w+\"}");
+        parser = new CustomParserTest.TestParser(config.getPath()) {
+            @Override
+            protected String getValue(String payload, PropertyField field) {
+                extracted.add(field);
+                return super.getValue(payload, field);
+            }
+        };
+    }
+
+    @Test
+    public void testFieldsAreExtractedWhenRead() {
+        LazyRecord record = parser.parseLazyRecord(PAYLOAD);
+
+        assertTrue(extracted.isEmpty());
+        assertEquals("scott", record.getAccessor().getDbUser());
+        assertEquals(Collections.singletonList(PropertyField.DB_USER), extracted);
+        assertEquals("scott", record.getAccessor().getDbUser());
+        assertEquals(1, extracted.size());
+    }
+
+    @Test
+    public void testSetFieldsAreNotExtracted() {
+        LazyRecord record = parser.parseLazyRecord(PAYLOAD);
+
+        record.getAccessor().setServerType("custom");
+        record.materialize();
+        Set<PropertyField> lazyFields = new HashSet<>(extracted);
+        // each field was extracted once
+        assertEquals(extracted.size(), lazyFields.size());
+        assertFalse(lazyFields.contains(PropertyField.SERVER_TYPE));
+        assertEquals("custom", record.getAccessor().getServerType());
+    }
+
+    @Test
+    public void testMaterializeMatchesEagerRecord() {
+        LazyRecord record = parser.parseLazyRecord(PAYLOAD).materialize();
+        Set<PropertyField> lazyFields = new HashSet<>(extracted);
+
+        extracted.clear();
+        Record eager = parser.parseRecord(PAYLOAD);
+        // the fields an eager parse extracts
+        assertEquals(new HashSet<>(extracted), lazyFields);
+        assertEquals(eager.getSessionId(), record.getSessionId());
+        assertEquals(eager.getDbName(), record.getDbName());
+        assertEquals(eager.getAccessor().getServerType(), record.getAccessor().getServerType());
+        assertEquals(eager.getAccessor().getDbProtocol(), record.getAccessor().getDbProtocol());
+        assertEquals(eager.getSessionLocator().getClientPort(), record.getSessionLocator().getClientPort());
+        assertEquals(eager.getTime().getTimstamp(), record.getTime().getTimstamp());
+        assertEquals(eager.isException(), record.isException());
+    }
+
+    @Test
+    public void testInvalidPayload() {
+        assertNull(parser.parseLazyRecord(null));
+    }
+}
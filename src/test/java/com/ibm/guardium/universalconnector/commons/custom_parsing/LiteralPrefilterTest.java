@@ -0,0 +1,33 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class LiteralPrefilterTest {
+
+    @Test
+    public void testMayMatch() {
+        LiteralPrefilter prefilter = LiteralPrefilter.build(Arrays.asList(
+                Collections.singletonList("[Session ID: "), null, Collections.singletonList("[Client Port: "),
+                Arrays.asList("[DB ", "User: "), Arrays.asList("[DB ", "Name: ")));
+        boolean[] found = prefilter.search("[Session ID: 777] [DB User: tiger]");
+
+        assertTrue(prefilter.mayMatch(0, found));
+        assertFalse(prefilter.hasLiterals(1));
+        assertTrue(prefilter.mayMatch(1, found));
+        assertFalse(prefilter.mayMatch(2, found));
+        assertTrue(prefilter.mayMatch(3, found));
+        // one of its literals is missing
+        assertFalse(prefilter.mayMatch(4, found));
+        assertEquals(2, prefilter.getSkipCount());
+    }
+
+    @Test
+    public void testNoLiterals() {
+        assertNull(LiteralPrefilter.build(Arrays.asList(null, Collections.emptyList())));
+    }
+}
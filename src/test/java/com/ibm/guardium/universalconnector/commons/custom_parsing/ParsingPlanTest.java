@@ -0,0 +1,141 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser.RegexAnalyzer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParserTest.PAYLOAD;
+import static org.junit.Assert.*;
+
+public class ParsingPlanTest {
+
+    @Test
+    public void testMultiFieldRegex() {
+        ParsingPlan plan = compile(PropertyConstant.MULTI_FIELD_REGEX, Arrays.asList(
+                "\\[Session ID: (?<sessionId>\\d+)\\].*\\[DB User: (?<DbUser>\\w+)\\]",
+                "\\[DB User: (?<dbuser>\\d+)\\]|\\[DB Name: (?<dbName>\\w+)\\]"),
+                PropertyConstant.DB_NAME, "(?<=\\[Server Type: )\\w+",
+                PropertyConstant.CLIENT_PORT, "(?<=\\[Client Port: )\\d+");
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertTrue(plan.isMultiField(PropertyField.SESSION_ID.ordinal()));
+        assertFalse(plan.isMultiField(PropertyField.CLIENT_PORT.ordinal()));
+        assertEquals("12345", context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertEquals("scott", context.extract(PropertyField.DB_USER.ordinal()));
+        // captured by a named group rather than by its own expression
+        assertEquals("orcl", context.extract(PropertyField.DB_NAME.ordinal()));
+        assertEquals("5432", context.extract(PropertyField.CLIENT_PORT.ordinal()));
+    }
+
+    @Test
+    public void testMultiFieldRegexAmbiguousGroup() {
+        // db_name and the custom field dbname both normalize to the group name dbname
+        ParsingPlan plan = compile(PropertyConstant.MULTI_FIELD_REGEX, Arrays.asList(
+                "\\[Session ID: (?<sessionId>\\d+)\\].*\\[DB Name: (?<dbName>\\w+)\\]"),
+                "dbname", "(?<=\\[Server Type: )\\w+");
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertTrue(plan.isMultiField(PropertyField.SESSION_ID.ordinal()));
+        assertFalse(plan.isMultiField(PropertyField.DB_NAME.ordinal()));
+        assertFalse(plan.isMultiField(plan.getSlot("dbname")));
+        assertNull(context.extract(PropertyField.DB_NAME.ordinal()));
+        assertEquals("ORACLE", context.extract(plan.getSlot("dbname")));
+    }
+
+    @Test
+    public void testFieldsWithoutRequiredLiteralsAreSkipped() {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+(?=\\])",
+                PropertyConstant.DB_USER, "(?<=\\[DB User: )\\w+(?=\\])",
+                PropertyConstant.CLIENT_PORT, "(?<=\\[Client Port: )\\d+(?=\\])",
+                PropertyConstant.DB_NAME, "(?<=\\[DB Name: )\\w+(?=\\])",
+                PropertyConstant.OS_USER, "(?<=\\[DB User: )\\d+");
+        ExtractionContext context = new ExtractionContext(plan, "[Session ID: 777] [DB User: tiger]");
+
+        assertEquals("777", context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertEquals("tiger", context.extract(PropertyField.DB_USER.ordinal()));
+        assertEquals(0, plan.getPrefilterSkipCount());
+        assertNull(context.extract(PropertyField.CLIENT_PORT.ordinal()));
+        assertEquals(1, plan.getPrefilterSkipCount());
+        assertNull(context.extract(PropertyField.DB_NAME.ordinal()));
+        assertEquals(2, plan.getPrefilterSkipCount());
+        // its literal is found, so its expression runs, and does not match
+        assertNull(context.extract(PropertyField.OS_USER.ordinal()));
+        assertEquals(2, plan.getPrefilterSkipCount());
+    }
+
+    @Test
+    public void testRiskyRegexRejected() {
+        ParsingPlan plan = compile(PropertyConstant.SESSION_ID, "(?<=\\[Session ID: )\\d+",
+                PropertyConstant.DB_USER, "(\\w+\\s?)+\\]",
+                PropertyConstant.DB_NAME, "(\\w+)\\1+",
+                PropertyConstant.MAX_REGEX_DEGREE, 2);
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        assertEquals(1, (int) plan.getWorstCaseDegrees().get(PropertyConstant.SESSION_ID));
+        assertEquals(Integer.MAX_VALUE, (int) plan.getWorstCaseDegrees().get(PropertyConstant.DB_USER));
+        assertEquals(RegexAnalyzer.UNKNOWN, (int) plan.getWorstCaseDegrees().get(PropertyConstant.DB_NAME));
+        assertTrue(plan.isConfigured(PropertyField.SESSION_ID.ordinal()));
+        assertFalse(plan.isConfigured(PropertyField.DB_USER.ordinal()));
+        // a back-reference cannot be analyzed, which a max degree does not allow
+        assertFalse(plan.isConfigured(PropertyField.DB_NAME.ordinal()));
+        assertEquals("12345", context.extract(PropertyField.SESSION_ID.ordinal()));
+        assertNull(context.extract(PropertyField.DB_USER.ordinal()));
+    }
+
+    @Test
+    public void testRiskyRegexWithoutMaxDegree() {
+        ParsingPlan plan = compile(PropertyConstant.DB_USER, "(\\w+\\s?)+\\]",
+                PropertyConstant.DB_NAME, "(?<=\\[DB Name: )(\\w+)\\]\\1*");
+
+        // reported, but still extracted
+        assertEquals(Integer.MAX_VALUE, (int) plan.getWorstCaseDegrees().get(PropertyConstant.DB_USER));
+        assertTrue(plan.isConfigured(PropertyField.DB_USER.ordinal()));
+        assertEquals(RegexAnalyzer.UNKNOWN, (int) plan.getWorstCaseDegrees().get(PropertyConstant.DB_NAME));
+        assertEquals("orcl", new ExtractionContext(plan, PAYLOAD).extract(PropertyField.DB_NAME.ordinal()));
+    }
+
+    @Test
+    public void testConstantAndDerivedFields() {
+        Map<String, Object> constants = new HashMap<>();
+        constants.put(PropertyConstant.SERVER_OS, "Linux");
+        // a number in the JSON config
+        constants.put(PropertyConstant.SERVER_PORT, 1521);
+        constants.put("no_such_field", "ignored");
+        Map<String, String> derived = new HashMap<>();
+        derived.put(PropertyConstant.OS_USER, "${db_user}@${server_os}");
+        derived.put(PropertyConstant.DESCRIPTION, "${os_user}");
+        derived.put(PropertyConstant.SERVER_OS, "${db_user}");
+        derived.put(PropertyConstant.SOURCE_PROGRAM, "${no_such_field");
+        ParsingPlan plan = compile(PropertyConstant.DB_USER, "(?<=\\[DB User: )\\w+",
+                PropertyConstant.SERVER_OS, "(?<=\\[OS: )\\w+",
+                PropertyConstant.CONSTANT_FIELDS, constants,
+                PropertyConstant.DERIVED_FIELDS, derived);
+        ExtractionContext context = new ExtractionContext(plan, PAYLOAD);
+
+        // a constant field is not extracted by its expression
+        assertEquals("Linux", plan.getConstant(PropertyField.SERVER_OS.ordinal()));
+        assertNull(plan.getTemplate(PropertyField.SERVER_OS.ordinal()));
+        assertEquals("1521", plan.getConstant(PropertyField.SERVER_PORT.ordinal()));
+        assertTrue(plan.isConfigured(PropertyField.SERVER_PORT.ordinal()));
+        assertNotNull(plan.getTemplate(PropertyField.OS_USER.ordinal()));
+        assertEquals("scott@Linux", context.extract(PropertyField.OS_USER.ordinal()));
+        // a template referencing another derived field, or an invalid one, is ignored
+        assertNull(plan.getTemplate(PropertyField.DESCRIPTION.ordinal()));
+        assertFalse(plan.isConfigured(PropertyField.DESCRIPTION.ordinal()));
+        assertFalse(plan.isConfigured(PropertyField.SOURCE_PROGRAM.ordinal()));
+        assertEquals(-1, plan.getSlot("no_such_field"));
+    }
+
+    // compiles a plan for the regex parser from alternating keys and values, which may be lists or maps
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ParsingPlan compile(Object... keysAndValues) {
+        Map properties = new HashMap();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return ParsingPlan.compile(properties, new ParserFactory().getParser(ParserFactory.ParserType.regex));
+    }
+}
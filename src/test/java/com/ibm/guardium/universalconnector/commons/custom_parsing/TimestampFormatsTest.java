@@ -0,0 +1,58 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Time;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TimestampFormatsTest {
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+
+    private final TimestampFormats formats = TimestampFormats.compile(
+            Arrays.asList("ISO", "EPOCH_MILLIS", "EPOCH_SECONDS", "SYSLOG", "yyyy-MM-dd HH:mm:ss.SSS", "not a [pattern"),
+            PARIS, Clock.fixed(Instant.parse("2024-01-02T00:00:00Z"), PARIS));
+
+    @Test
+    public void testFormats() {
+        assertTime(1714558530123L, 0, 0, formats.parse("2024-05-01T10:15:30.123Z"));
+        assertTime(1714558530123L, 0, 0, formats.parse("1714558530123"));
+        assertTime(-1500L, 0, 0, formats.parse("-1.5"));
+        // syslog timestamps later than a day from now are from the previous year, 2023
+        assertTime(1682928930000L, 120, 60, formats.parse("May  1 10:15:30"));
+        assertTime(1703977200000L, 60, 0, formats.parse("Dec 31 00:00:00"));
+        assertTime(1714551330123L, 120, 60, formats.parse("2024-05-01 10:15:30.123"));
+    }
+
+    @Test
+    public void testSameSecondIsReused() {
+        assertTime(1714551330123L, 120, 60, formats.parse("2024-05-01 10:15:30.123"));
+        assertTime(1714551330999L, 120, 60, formats.parse("2024-05-01 10:15:30.999"));
+        assertTime(1714551331000L, 120, 60, formats.parse("2024-05-01 10:15:31.000"));
+        assertTime(1714551330456L, 120, 60, formats.parse("2024-05-01 10:15:30.456"));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testNoFormatMatches() {
+        formats.parse("yesterday");
+    }
+
+    @Test
+    public void testDefaultIsIso() {
+        TimestampFormats iso = TimestampFormats.compile(Arrays.asList("not a [pattern"), ZoneOffset.UTC);
+
+        assertTime(1714558530123L, 0, 0, iso.parse("2024-05-01T10:15:30.123Z"));
+    }
+
+    private static void assertTime(long millis, int minOffset, int minDst, Time time) {
+        assertEquals(millis, time.getTimstamp());
+        assertEquals(minOffset, time.getMinOffsetFromGMT());
+        assertEquals(minDst, time.getMinDst());
+    }
+}
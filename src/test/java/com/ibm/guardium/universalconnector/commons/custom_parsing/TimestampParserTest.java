@@ -0,0 +1,72 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing;
+
+import com.ibm.guardium.universalconnector.commons.structures.Time;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TimestampParserTest {
+
+    @Test
+    public void testIsoOffsetDateTime() {
+        assertTime(1714558530123L, 0, 0, TimestampParser.parseIsoOffsetDateTime("2024-05-01T10:15:30.123Z"));
+        assertTime(1714558530000L, 330, 0, TimestampParser.parseIsoOffsetDateTime("2024-05-01T15:45:30+05:30"));
+        assertNull(TimestampParser.parseIsoOffsetDateTime("2024-05-01T10:15:30"));
+        assertNull(TimestampParser.parseIsoOffsetDateTime("2024-02-30T10:15:30Z"));
+        assertNull(TimestampParser.parseIsoOffsetDateTime("2024-05-01T10:15:30+01:00[Europe/Paris]"));
+    }
+
+    @Test
+    public void testSameAsDateTimeFormatter() {
+        String[] timestamps = {
+                "2024-05-01T10:15:30.123Z", "2024-05-01t10:15:30.123456789z", "1969-12-31T23:59:59.999Z",
+                "2000-02-29T00:00+18:00", "1900-03-01T12:00:00-05:30", "2024-05-01T10:15:30+01:00:30",
+                "2024-05-01T10:15:30.Z", "2024-05-01T24:00:00Z", "2023-02-29T10:15:30Z", "2024-05-01T10:15:30+19:00",
+                "2024-05-01T10:15:30.1234567891Z", "2024-05-01T10:15:30+01", "2024-03-31T02:30:00+02:00[Europe/Paris]",
+                "2024-07-01T12:00:00-04:00[America/New_York]", "2024-12-01T12:00:00-05:00[America/New_York]",
+                "2024-07-01T12:30:00-04:00[America/New_York]",
+        };
+        for (String timestamp : timestamps) {
+            assertSameAsFormatter(timestamp);
+        }
+
+        Random random = new Random(3);
+        for (int i = 0; i < 5000; i++) {
+            Instant instant = Instant.ofEpochSecond(random.nextLong() % 4_000_000_000L, random.nextInt(1_000_000_000));
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(37) - 18) * 1800);
+            assertSameAsFormatter(ZonedDateTime.ofInstant(instant, offset).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+        }
+    }
+
+    private static void assertSameAsFormatter(String timestamp) {
+        ZonedDateTime date;
+        try {
+            date = ZonedDateTime.parse(timestamp, DateTimeFormatter.ISO_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            try {
+                TimestampParser.parse(timestamp);
+                fail(timestamp + " should be rejected");
+            } catch (DateTimeParseException expected) {
+                // rejected as well
+            }
+            return;
+        }
+        int minDst = date.getZone().getRules().isDaylightSavings(date.toInstant()) ? 60 : 0;
+        assertTime(date.toInstant().toEpochMilli(), date.getOffset().getTotalSeconds() / 60, minDst,
+                TimestampParser.parse(timestamp));
+    }
+
+    private static void assertTime(long millis, int minOffset, int minDst, Time time) {
+        assertNotNull(time);
+        assertEquals(millis, time.getTimstamp());
+        assertEquals(minOffset, time.getMinOffsetFromGMT());
+        assertEquals(minDst, time.getMinDst());
+    }
+}
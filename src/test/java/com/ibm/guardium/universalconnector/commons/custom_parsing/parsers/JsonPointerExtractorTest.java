@@ -0,0 +1,74 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import com.ibm.guardium.universalconnector.commons.custom_parsing.CustomParser;
+import com.ibm.guardium.universalconnector.commons.custom_parsing.ParserFactory;
+import com.ibm.guardium.universalconnector.commons.structures.Record;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class JsonPointerExtractorTest {
+    private static final String PAYLOAD = "{\"eventName\": \"Query\", \"session\": {\"id\": 42, \"port\": \"5432\"}, "
+            + "\"user\": {\"name\": \"scott\", \"roles\": [\"dba\", \"dev\"]}, \"flags\": null, "
+            + "\"a/b\": true, \"noise\": {\"user\": {\"name\": \"tiger\"}}}";
+
+    @Test
+    public void testExtract() {
+        JsonPointerExtractor extractor = new JsonPointerExtractor(new String[]{
+                "/session/id", null, "/user/name", "/user/roles/1", "/user/roles", "/flags", "/a~1b", "/missing/x",
+                "/user"});
+        String[] values = new String[9];
+        extractor.extract(PAYLOAD, values);
+
+        assertEquals("42", values[0]);
+        assertNull(values[1]);
+        assertEquals("scott", values[2]);
+        assertEquals("dev", values[3]);
+        assertEquals("[\"dba\",\"dev\"]", values[4]);
+        assertNull(values[5]);
+        assertEquals("true", values[6]);
+        assertNull(values[7]);
+        assertEquals("{\"name\":\"scott\",\"roles\":[\"dba\",\"dev\"]}", values[8]);
+        assertArrayEquals(new int[]{0, 2, 3, 4, 5, 6, 7, 8}, extractor.getSlots());
+    }
+
+    @Test
+    public void testKeepsValuesAndInvalidJson() {
+        JsonPointerExtractor extractor = new JsonPointerExtractor(new String[]{"/eventName", "/session/id"});
+        String[] values = {"preset", null};
+        extractor.extract("{\"session\": {\"id\": 7}, \"eventName\": \"x\", ", values);
+
+        assertEquals("preset", values[0]);
+        assertEquals("7", values[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPointer() {
+        new JsonPointerParser().compile("session/id");
+    }
+
+    @Test
+    public void testParseRecord() throws IOException {
+        File config = File.createTempFile("config", ".json");
+        config.deleteOnExit();
+        Files.write(config.toPath(), ("{\"session_id\": \"/session/id\", \"db_user\": \"/user/name\", "
+                + "\"client_port\": \"/session/port\", \"db_name\": \"/missing\"}").getBytes(StandardCharsets.UTF_8));
+        CustomParser parser = new CustomParser(ParserFactory.ParserType.json) {
+            @Override
+            public String getConfigFilePath() {
+                return config.getPath();
+            }
+        };
+        Record record = parser.parseRecord(PAYLOAD);
+
+        assertEquals("42", record.getSessionId());
+        assertEquals("scott", record.getAccessor().getDbUser());
+        assertEquals(5432, record.getSessionLocator().getClientPort());
+        assertEquals("42", new JsonPointerParser().parse(PAYLOAD, "/session/id"));
+    }
+}
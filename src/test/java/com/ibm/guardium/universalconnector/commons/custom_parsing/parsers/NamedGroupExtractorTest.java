@@ -0,0 +1,52 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class NamedGroupExtractorTest {
+    private static final String PAYLOAD = "[Session ID: 12345] [Client Port: 5432] [DB User: scott] [DB Name: orcl]";
+
+    @Test
+    public void testExtract() {
+        Map<String, Integer> slots = new HashMap<>();
+        slots.put("sessionid", 0);
+        slots.put("dbuser", 1);
+        slots.put("dbname", 2);
+        NamedGroupExtractor extractor = new NamedGroupExtractor(Arrays.asList(
+                "\\[Session ID: (?<sessionId>\\d+)\\].*\\[DB User: (?<DbUser>\\w+)\\]",
+                "\\[DB User: (?<dbuser>\\d+)\\]|\\[DB Name: (?<dbName>\\w+)\\]|(?<unknown>x)"),
+                name -> slots.getOrDefault(NamedGroupExtractor.normalize(name), -1));
+        String[] values = new String[3];
+        extractor.extract(PAYLOAD, values);
+
+        // the first regex takes precedence, and the group that names no field is ignored
+        assertArrayEquals(new String[]{"12345", "scott", "orcl"}, values);
+        int[] filled = extractor.getSlots();
+        Arrays.sort(filled);
+        assertArrayEquals(new int[]{0, 1, 2}, filled);
+    }
+
+    @Test
+    public void testGroupNames() {
+        assertEquals(Arrays.asList("a", "b2"), NamedGroupExtractor.groupNames("(?<a>x)[(?<no>]\\(?<no>(?<b2>y)(?<=z)"));
+    }
+
+    @Test
+    public void testNormalize() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            // the Turkish lower case of I is a dotless i
+            assertEquals("clientip", NamedGroupExtractor.normalize("CLIENT_IP"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+        assertEquals(NamedGroupExtractor.normalize("session_id"), NamedGroupExtractor.normalize("sessionId"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class XmlPathExtractorTest {
+    private static final String PAYLOAD = "<?xml version=\"1.0\"?>"
+            + "<a:AuditRecord xmlns:a=\"urn:audit\">"
+            + "<Noise><DBUser>tiger</DBUser></Noise>"
+            + "<Session id=\"42\" port=\"5432\"/>"
+            + "<DBUser> scott </DBUser><DBUser>ignored</DBUser>"
+            + "<Sql><![CDATA[select 1 from t where a < 2]]></Sql>"
+            + "<Object><Schema>hr</Schema> <Name>emp &amp; dept</Name></Object>"
+            + "</a:AuditRecord>";
+
+    @Test
+    public void testExtract() {
+        XmlPathExtractor extractor = new XmlPathExtractor(new String[]{
+                "/AuditRecord/Session/@id", null, "/AuditRecord/DBUser", "/AuditRecord/Sql", "/AuditRecord/Object",
+                "/AuditRecord/Object/Name", "/AuditRecord/Missing", "/AuditRecord/Session/@port"});
+        String[] values = new String[8];
+        extractor.extract(PAYLOAD, values);
+
+        assertEquals("42", values[0]);
+        assertNull(values[1]);
+        assertEquals("scott", values[2]);
+        assertEquals("select 1 from t where a < 2", values[3]);
+        assertEquals("hr emp & dept", values[4]);
+        assertEquals("emp & dept", values[5]);
+        assertNull(values[6]);
+        assertEquals("5432", values[7]);
+        assertArrayEquals(new int[]{0, 2, 3, 4, 5, 6, 7}, extractor.getSlots());
+    }
+
+    @Test
+    public void testStopsOnceResolved() {
+        // the document is malformed after the last requested path, which is never read
+        String[] values = new String[1];
+        new XmlPathExtractor(new String[]{"/r/a"}).extract("<r><a>1</a><b></c></r>", values);
+
+        assertEquals("1", values[0]);
+    }
+
+    @Test
+    public void testRejectsDtd() {
+        String payload = "<!DOCTYPE r [<!ENTITY e SYSTEM \"file:///etc/passwd\">]><r><a>&e;</a></r>";
+
+        assertNull(new XmlPathParser().parse(payload, "/r/a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPath() {
+        new XmlPathParser().compile("/r/@a/b");
+    }
+}
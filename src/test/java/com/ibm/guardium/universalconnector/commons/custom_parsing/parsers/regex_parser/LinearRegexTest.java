@@ -0,0 +1,141 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class LinearRegexTest {
+    private static final String[] REGEXES = {
+            "(?<=\\[Session ID: )\\d+", "(?<=DB User: )\\w+(?=\\])", "user=([a-z]*?)b", "(a|ab)(c|bcd)(d*)",
+            "^\\s*(\\w+)\\s*$", "\\bab\\b", "a{2,3}b?", "(?:x|y)+?z", "([^ ]+) ([^ ]+)", "a++b", "\\d{3}\\z",
+            "(?<!a)b", "c(?!d)", "\\Bb", "(?<name>[ab]+)\\.", "a.c", "(a)|b"};
+    private static final String ALPHABET = "abcdxyz 0123_.[]=\r\n";
+
+    @Test
+    public void testSameMatchesAsJavaRegex() throws UnsupportedRegexException {
+        Random random = new Random(7);
+        for (String regex : REGEXES) {
+            LinearRegex linear = LinearRegex.compile(regex);
+            Pattern pattern = Pattern.compile(regex);
+            assertEquals(regex, pattern.matcher("").groupCount(), linear.groupCount());
+            for (int i = 0; i < 2000; i++) {
+                StringBuilder input = new StringBuilder();
+                int length = random.nextInt(16);
+                for (int j = 0; j < length; j++) {
+                    input.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                String text = input.toString();
+                assertArrayEquals(regex + " on " + text, expected(pattern, text), linear.find(text));
+            }
+        }
+        assertArrayEquals(new int[]{13, 18}, LinearRegex.compile("(?<=\\[Session ID: )\\d+").find("[Session ID: 12345]"));
+    }
+
+    @Test(timeout = 5000)
+    public void testLinearOnCatastrophicRegex() throws UnsupportedRegexException {
+        char[] input = new char[100000];
+        Arrays.fill(input, 'a');
+
+        assertNull(LinearRegex.compile("(?:a+)+b").find(new String(input)));
+        assertNull(LinearRegex.compile("(?:a|aa)*c").find(new String(input)));
+    }
+
+    @Test
+    public void testUnsupportedConstructs() {
+        for (String regex : new String[]{"(?>a+)b", "a{1,3}+", "(?<=a+b)c", "(?=\\d+x)", "(\\w)\\1", "a{1,10000}", "(a*)*b",
+                "(?:a*)*b", "(?:a*?)+", "x(?:.*?)+", "(a)+", "(?:(a)|b){2}"}) {
+            try {
+                LinearRegex.compile(regex);
+                fail(regex);
+            } catch (UnsupportedRegexException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testRejectedWhereJavaRegexMayDiffer() {
+        String[][] cases = {{"(?:a*?)+", "aa"}, {"x(?:.*?)+", "xyz"}, {"(?:a*)*b", "aab"}, {"(a|)+", "aa"},
+                {"(?:(?:([ab])+.{0,2}|(1[:1].))){2,}?", " bbbb?a["}};
+        for (String[] regexAndInput : cases) {
+            Pattern pattern = Pattern.compile(regexAndInput[0]);
+            try {
+                LinearRegex linear = LinearRegex.compile(regexAndInput[0]);
+                assertArrayEquals(regexAndInput[0] + " on " + regexAndInput[1], expected(pattern, regexAndInput[1]),
+                        linear.find(regexAndInput[1]));
+            } catch (UnsupportedRegexException e) {
+                // falls back to java.util.regex, which is the reference
+            }
+        }
+    }
+
+    @Test
+    public void testRandomRegexesRejectedOrSameAsJavaRegex() {
+        Random random = new Random(11);
+        int compared = 0;
+        for (int i = 0; i < 3000; i++) {
+            String regex = randomRegex(random, 3);
+            LinearRegex linear;
+            try {
+                linear = LinearRegex.compile(regex);
+            } catch (UnsupportedRegexException e) {
+                continue;
+            }
+            Pattern pattern = Pattern.compile(regex);
+            for (int j = 0; j < 20; j++) {
+                String text = randomText(random, 10);
+                assertArrayEquals(regex + " on " + text, expected(pattern, text), linear.find(text));
+            }
+            compared++;
+        }
+        assertTrue(compared > 1000);
+    }
+
+    private static String randomRegex(Random random, int depth) {
+        switch (depth == 0 ? random.nextInt(3) : random.nextInt(9)) {
+            case 0:
+                return String.valueOf("ab1".charAt(random.nextInt(3)));
+            case 1:
+                return random.nextBoolean() ? "[ab]" : ".";
+            case 2:
+                return "\\d";
+            case 3:
+            case 4:
+                return randomRegex(random, depth - 1) + randomRegex(random, depth - 1);
+            case 5:
+                return "(?:" + randomRegex(random, depth - 1) + "|" + randomRegex(random, depth - 1) + ")";
+            case 6:
+                return "(" + randomRegex(random, depth - 1) + ")";
+            default:
+                String[] quantifiers = {"*", "+", "?", "{0,2}", "{2,}", "*?", "+?", "{1,3}?"};
+                return "(?:" + randomRegex(random, depth - 1) + ")" + quantifiers[random.nextInt(quantifiers.length)];
+        }
+    }
+
+    private static String randomText(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            text.append("ab1 ?".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+
+    private static int[] expected(Pattern pattern, String text) {
+        Matcher m = pattern.matcher(text);
+        if (!m.find()) {
+            return null;
+        }
+        int[] bounds = new int[2 * (m.groupCount() + 1)];
+        for (int group = 0; group <= m.groupCount(); group++) {
+            bounds[2 * group] = m.start(group);
+            bounds[2 * group + 1] = m.end(group);
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class LiteralLookaroundScannerTest {
+    private static final String ALPHABET = "ab]1 \uD83D\uDE00";
+
+    @Test
+    public void testSupportedShapes() {
+        assertNotNull(LiteralLookaroundScanner.compile("(?<=\\[Session ID: )\\d+(?=\\])"));
+        assertNotNull(LiteralLookaroundScanner.compile("(?<=\\[DB Protocol: )[\\w/]+(?=\\])"));
+        assertNotNull(LiteralLookaroundScanner.compile("(?<=user=)[^,]*"));
+        assertNotNull(LiteralLookaroundScanner.compile("(?<=port )\\d{1,5}+"));
+    }
+
+    @Test
+    public void testUnsupportedShapes() {
+        // the lookahead starts with a char of the class, the engine may backtrack
+        assertNull(LiteralLookaroundScanner.compile("(?<=a: )\\w+(?=b)"));
+        assertNull(LiteralLookaroundScanner.compile("(?<=a: )\\w+?(?=\\])"));
+        assertNull(LiteralLookaroundScanner.compile("(?<=a: )(\\w+)(?=\\])"));
+        assertNull(LiteralLookaroundScanner.compile("(?<=\\[Client IP: )\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}(?=\\])"));
+        assertNull(LiteralLookaroundScanner.compile("(?i)(?<=a: )\\w+"));
+        assertNull(LiteralLookaroundScanner.compile("\\w+(?=\\])"));
+    }
+
+    @Test
+    public void testMatchesRegexEngine() {
+        String[] regexes = {
+                "(?<=\\[Session ID: )\\d+(?=\\])",
+                "(?<=\\[DB Protocol: )[\\w/]+(?=\\])",
+                "(?<=ab)[^b]{2,3}(?=ba)",
+                "(?<=aa)a{0,2}",
+                "(?<=b)[^\\]]*(?=\\])",
+                "(?<=a)\\D+",
+        };
+        String[] payloads = {
+                "[Session ID: 123] [DB Protocol: TCP/IP]",
+                "[Session ID: ] [Session ID: 42x] [Session ID: 7]",
+                "[DB Protocol: a b] [DB Protocol: x/y]",
+                "",
+        };
+        for (String regex : regexes) {
+            for (String payload : payloads) {
+                assertSameMatch(regex, payload);
+            }
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder payload = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                payload.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            for (String regex : regexes) {
+                assertSameMatch(regex, payload.toString());
+            }
+        }
+    }
+
+    private static void assertSameMatch(String regex, String payload) {
+        LiteralLookaroundScanner scanner = LiteralLookaroundScanner.compile(regex);
+        assertNotNull(regex, scanner);
+
+        long bounds = scanner.find(payload);
+        if (bounds == LiteralLookaroundScanner.UNDECIDED) {
+            return;
+        }
+        Matcher m = Pattern.compile(regex).matcher(payload);
+        if (m.find()) {
+            assertTrue(regex + " on " + payload, bounds >= 0);
+            assertEquals(regex + " on " + payload, m.start(), LiteralLookaroundScanner.start(bounds));
+            assertEquals(regex + " on " + payload, m.end(), LiteralLookaroundScanner.end(bounds));
+        } else {
+            assertEquals(regex + " on " + payload, -1, bounds);
+        }
+    }
+}
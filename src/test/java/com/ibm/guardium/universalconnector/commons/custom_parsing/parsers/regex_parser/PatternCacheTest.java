@@ -0,0 +1,40 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class PatternCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        PatternCache cache = new PatternCache();
+
+        Pattern p = cache.get("\\d+");
+        assertSame(p, cache.get("\\d+"));
+        assertNotSame(p, cache.get("\\d+", Pattern.CASE_INSENSITIVE));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        PatternCache cache = new PatternCache(2);
+
+        Pattern a = cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.get("a"));
+        assertEquals(3, cache.getMissCount());
+        cache.get("b");
+        assertEquals(4, cache.getMissCount());
+    }
+}
@@ -0,0 +1,33 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PatternSafetyTest {
+
+    @Test
+    public void testLinear() {
+        assertTrue(PatternSafety.isLinear("(?<=\\[Session ID: )\\d+"));
+        assertTrue(PatternSafety.isLinear("(?<=DB User: )\\w+(?=\\])"));
+        assertTrue(PatternSafety.isLinear("^\\d+:\\w+"));
+        assertTrue(PatternSafety.isLinear("user=([a-z]+) "));
+        assertTrue(PatternSafety.isLinear("\\d{1,3}(\\.\\d{1,3}){3}"));
+        assertTrue(PatternSafety.isLinear("SELECT|INSERT|UPDATE"));
+    }
+
+    @Test
+    public void testNotLinear() {
+        // catastrophic backtracking
+        assertFalse(PatternSafety.isLinear("(\\w+)+x"));
+        assertFalse(PatternSafety.isLinear("(a|ab)*c"));
+        // polynomial backtracking
+        assertFalse(PatternSafety.isLinear("\\d+\\d+x"));
+        // quadratic across the attempts of find()
+        assertFalse(PatternSafety.isLinear(".*x"));
+        assertFalse(PatternSafety.isLinear("a\\w+x"));
+        assertFalse(PatternSafety.isLinear("user=([^ ]+) "));
+        // not modelled
+        assertFalse(PatternSafety.isLinear("(\\w)\\1"));
+    }
+}
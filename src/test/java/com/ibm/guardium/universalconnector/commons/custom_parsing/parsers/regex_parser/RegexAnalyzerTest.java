@@ -0,0 +1,71 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RegexAnalyzerTest {
+    private static final String ALPHABET = "ab1 2=x\n_";
+
+    @Test
+    public void testHarden() {
+        assertEquals("user=\\w*+ ", RegexAnalyzer.harden("user=\\w* "));
+        assertEquals("(?<=\\[Session ID: )\\d++(?=\\])", RegexAnalyzer.harden("(?<=\\[Session ID: )\\d+(?=\\])"));
+        assertEquals("(\\d++,)*", RegexAnalyzer.harden("(\\d+,)*"));
+        // giving back a digit may let the rest match
+        assertEquals("\\d+\\d", RegexAnalyzer.harden("\\d+\\d"));
+        // an assertion between the repetition and what follows
+        assertEquals("a*\\b=", RegexAnalyzer.harden("a*\\b="));
+        // lazy and possessive quantifiers are left alone
+        assertEquals("a*?b", RegexAnalyzer.harden("a*?b"));
+        assertEquals("(\\w)\\1", RegexAnalyzer.harden("(\\w)\\1"));
+    }
+
+    @Test
+    public void testHardenedMatchesAreTheSame() {
+        String[] regexes = {"user=\\w* ", "(\\d+,)*x?", "a*b+=", "[ab]+(?=1)", "(a+|b+)2", "^\\s*(\\w+)\\s*$",
+                "x?\\d{1,3}+ ", "(?:ab?)*1", "[^=]*=(\\w*)", "a*(?!b)1"};
+        Random random = new Random(3);
+        for (String regex : regexes) {
+            Pattern original = Pattern.compile(regex);
+            Pattern hardened = Pattern.compile(RegexAnalyzer.harden(regex));
+            for (int i = 0; i < 3000; i++) {
+                StringBuilder input = new StringBuilder();
+                int length = random.nextInt(14);
+                for (int j = 0; j < length; j++) {
+                    input.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                String text = input.toString();
+                assertEquals(regex + " on " + text, describe(original.matcher(text)), describe(hardened.matcher(text)));
+            }
+        }
+    }
+
+    @Test
+    public void testWorstCaseDegree() {
+        assertEquals(1, RegexAnalyzer.worstCaseDegree("(?<=\\[Session ID: )\\d+"));
+        assertEquals(1, RegexAnalyzer.worstCaseDegree("user=([a-z]+) "));
+        assertEquals(2, RegexAnalyzer.worstCaseDegree(".*x"));
+        assertEquals(2, RegexAnalyzer.worstCaseDegree("^\\d+\\d+x"));
+        assertEquals(3, RegexAnalyzer.worstCaseDegree("^.*a.*a.*x"));
+        assertEquals(RegexAnalyzer.EXPONENTIAL, RegexAnalyzer.worstCaseDegree("(\\w+)+x"));
+        assertEquals(RegexAnalyzer.EXPONENTIAL, RegexAnalyzer.worstCaseDegree("(a|ab)*c"));
+        assertEquals(RegexAnalyzer.UNKNOWN, RegexAnalyzer.worstCaseDegree("(\\w)\\1"));
+        assertEquals("O(n^2)", RegexAnalyzer.describe(2));
+    }
+
+    private static String describe(Matcher m) {
+        if (!m.find()) {
+            return "no match";
+        }
+        StringBuilder groups = new StringBuilder();
+        for (int group = 0; group <= m.groupCount(); group++) {
+            groups.append(m.start(group)).append('-').append(m.end(group)).append(' ');
+        }
+        return groups.toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex
 
 import org.junit.Test;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -34,4 +35,79 @@ public class RegexExecutorTest {
         assertFalse(rr.timedOut());
         assertEquals(-1, rr.getDuration());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindReusing() {
+        Pattern digits = Pattern.compile("\\d+");
+        RegexResult rr = re.findReusing(digits, "port 5432");
+        assertTrue(rr.matched());
+        assertEquals("5432", rr.getMatcher().group());
+        Matcher m = rr.getMatcher();
+
+        rr = re.findReusing(Pattern.compile("x"), "abc");
+        assertFalse(rr.matched());
+        assertFalse(rr.timedOut());
+
+        // a shorter source than the last one the matcher ran on
+        rr = re.findReusing(digits, "a 7");
+        assertTrue(rr.matched());
+        assertSame(m, rr.getMatcher());
+        assertEquals("7", rr.getMatcher().group());
+        assertSame(rr, re.findReusing(digits, "b"));
+    }
+
+    @Test
+    public void testDeadline() {
+        Pattern digits = Pattern.compile("\\d+");
+        long previous = RegexExecutor.setDeadline(System.nanoTime() - 1);
+        try {
+            RegexResult rr = re.findReusing(digits, "port 5432");
+            assertFalse(rr.matched());
+            assertTrue(rr.timedOut());
+        } finally {
+            RegexExecutor.setDeadline(previous);
+        }
+        assertTrue(re.findReusing(digits, "port 5432").matched());
+    }
+
+    @Test
+    public void testTrustedPatterns() {
+        Pattern linear = Pattern.compile("(?<=port )\\d+");
+        Pattern backtracking = Pattern.compile("(\\w+)+x");
+
+        assertTrue(RegexExecutor.isTrusted(linear));
+        assertFalse(RegexExecutor.isTrusted(backtracking));
+        assertFalse(RegexExecutor.isTrusted(Pattern.compile("(?<=port )\\d+", Pattern.CASE_INSENSITIVE)));
+        assertEquals("5432", re.findReusing(linear, "port 5432").getMatcher().group());
+        assertTrue(re.findReusing(backtracking, "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa").timedOut());
+    }
+
+    @Test
+    public void testTrustedPatternUnderDeadline() {
+        Pattern linear = Pattern.compile("(?<=user=)[a-z]+");
+        // short enough to match well within the timeout even before the JIT compiles the engine
+        String shortSource = "0123456789user=scott";
+        for (int i = 0; i < 2000; i++) {
+            assertEquals("scott", re.findReusing(linear, shortSource).getMatcher().group());
+        }
+        assertTrue(RegexExecutor.isTrusted(linear));
+
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            payload.append("0123456789");
+        }
+        payload.append("user=scott");
+        String source = payload.toString();
+        for (int i = 0; i < 5; i++) {
+            long previous = RegexExecutor.setDeadline(System.nanoTime() + 10000);
+            try {
+                // the match starts before the deadline and ends after it
+                assertTrue(re.findReusing(linear, source).timedOut());
+            } finally {
+                RegexExecutor.setDeadline(previous);
+            }
+        }
+        // overrunning the deadline of a record says nothing about the Pattern
+        assertTrue(RegexExecutor.isTrusted(linear));
+    }
+}
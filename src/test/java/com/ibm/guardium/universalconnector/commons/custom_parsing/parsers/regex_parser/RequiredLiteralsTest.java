@@ -0,0 +1,73 @@
+package com.ibm.guardium.universalconnector.commons.custom_parsing.parsers.regex_parser;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RequiredLiteralsTest {
+    private static final String ALPHABET = "abc: []1";
+
+    @Test
+    public void testRequiredLiterals() {
+        assertEquals(Collections.singletonList("[Session ID: "), RequiredLiterals.of("(?<=\\[Session ID: )\\d+(?=\\])"));
+        assertEquals(Arrays.asList("user=", " db="), RequiredLiterals.of("user=(\\w+) db=(\\w*)"));
+        assertEquals(Collections.singletonList("abcd"), RequiredLiterals.of("(?<=ab)cd"));
+        assertEquals(Arrays.asList("ab", "cd"), RequiredLiterals.of("ab(?=cd)"));
+        assertEquals(Collections.singletonList("xy"), RequiredLiterals.of("(?:xy)+z?"));
+        assertEquals(Collections.emptyList(), RequiredLiterals.of("ab|cd"));
+        assertEquals(Collections.emptyList(), RequiredLiterals.of("(?:ab)*"));
+        assertEquals(Collections.emptyList(), RequiredLiterals.of("(?!ab)c"));
+        assertEquals(Collections.emptyList(), RequiredLiterals.of("(?i)abc"));
+    }
+
+    @Test
+    public void testAhoCorasick() {
+        AhoCorasick automaton = new AhoCorasick(Arrays.asList("he", "she", "his", "hers", "été"));
+        boolean[] found = new boolean[automaton.getLiteralCount()];
+
+        assertEquals(3, automaton.search("ushers", found));
+        assertArrayEquals(new boolean[]{true, true, false, true, false}, found);
+        assertEquals(1, automaton.search("l'été", found));
+        assertArrayEquals(new boolean[]{false, false, false, false, true}, found);
+        assertEquals(0, automaton.search("", found));
+    }
+
+    @Test
+    public void testLiteralsOfMatches() {
+        String[] regexes = {
+                "(?<=\\[a: )\\w+(?=\\])",
+                "a(b|c)+: (?=\\[)",
+                "(?<=ab)(?:c1)+b",
+                "(?:ab){2}[1]c",
+                "(?>a:)\\s\\[",
+        };
+        Random random = new Random(11);
+        for (String regex : regexes) {
+            List<String> literals = RequiredLiterals.of(regex);
+            assertFalse(regex, literals.isEmpty());
+            AhoCorasick automaton = new AhoCorasick(literals);
+            boolean[] found = new boolean[literals.size()];
+            Pattern pattern = Pattern.compile(regex);
+            for (int i = 0; i < 5000; i++) {
+                StringBuilder payload = new StringBuilder();
+                int length = random.nextInt(16);
+                for (int j = 0; j < length; j++) {
+                    payload.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                boolean all = automaton.search(payload, found) == literals.size();
+                for (int id = 0; id < literals.size(); id++) {
+                    assertEquals(payload.toString().contains(literals.get(id)), found[id]);
+                }
+                if (pattern.matcher(payload).find()) {
+                    assertTrue(regex + " on " + payload, all);
+                }
+            }
+        }
+    }
+}
@@ -30,4 +30,13 @@ public class TimeoutStringTest {
             // expected
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReset() {
+        TimeoutString ts = new TimeoutString("", -1, 1);
+        ts.reset("abc", Long.MAX_VALUE);
+
+        assertEquals(3, ts.length());
+        assertEquals('c', ts.charAt(2));
+    }
+}